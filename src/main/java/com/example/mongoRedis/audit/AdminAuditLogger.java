@@ -0,0 +1,410 @@
+package com.example.mongoRedis.audit;
+
+import com.example.mongoRedis.user.dto.model.AdminLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records admin mutations to {@code admin_logs} off the request path. {@link #record} only offers
+ * to a bounded queue; a single writer thread drains it with {@code insertMany} every
+ * {@code audit.batch-size} events or {@code audit.flush-interval}, whichever comes first.
+ * <p>
+ * When the queue is full, events go to a second bounded overflow queue, which the writer appends
+ * to a local NDJSON spill file; callers never touch the file. Batches Mongo rejects are spilled
+ * the same way, and the writer replays the file once Mongo accepts writes again. Events are only
+ * dropped (and counted) if the overflow queue is full too or the spill file cannot be written. Replay records
+ * how many lines it has inserted so a retry resumes after them, and moves lines it cannot parse
+ * to a {@code .bad} file next to the spill file.
+ * <p>
+ * {@code admin_logs} is a time-series collection (time field {@code timestamp}, meta field
+ * {@code adminId}) with {@code audit.retention} expiry. It is created by the writer before its
+ * first insert, since an insert into a missing collection would create a regular one.
+ */
+@Component
+public class AdminAuditLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminAuditLogger.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String COLLECTION = "admin_logs";
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.overflow-capacity:10000}")
+    private int overflowCapacity;
+
+    @Value("${audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval:PT1S}")
+    private Duration flushInterval;
+
+    @Value("${audit.shutdown-timeout:PT10S}")
+    private Duration shutdownTimeout;
+
+    @Value("${audit.spill-file:${java.io.tmpdir}/mongoRedis-audit-spill.ndjson}")
+    private Path spillFile;
+
+    @Value("${audit.retention:P90D}")
+    private Duration retention;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Object spillLock = new Object();
+
+    private BlockingQueue<AdminLog> queue;
+    private BlockingQueue<AdminLog> overflow;
+    private Thread writer;
+    private volatile boolean running;
+    private boolean collectionReady; // writer thread only
+
+    private Counter written;
+    private Counter spilled;
+    private Counter dropped;
+    private Counter flushFailures;
+    private Counter quarantined;
+
+    public AdminAuditLogger(MongoTemplate mongoTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        overflow = new ArrayBlockingQueue<>(overflowCapacity);
+        meterRegistry.gauge("audit.queue.depth", queue, BlockingQueue::size);
+        meterRegistry.gauge("audit.overflow.depth", overflow, BlockingQueue::size);
+        written = Counter.builder("audit.events.written").register(meterRegistry);
+        spilled = Counter.builder("audit.events.spilled")
+                .description("Events written to the local spill file because the queue was full or Mongo failed")
+                .register(meterRegistry);
+        dropped = Counter.builder("audit.events.dropped")
+                .description("Events lost because neither the queues, Mongo nor the spill file accepted them")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("audit.flush.failures").register(meterRegistry);
+        quarantined = Counter.builder("audit.events.quarantined")
+                .description("Spilled lines that could not be parsed, moved aside to the .bad file")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        // Not interrupted: the writer notices within one flush interval and drains the queue first
+        running = false;
+        writer.join(shutdownTimeout.toMillis());
+
+        // Whatever the writer could not flush in time goes to the spill file for the next start
+        List<AdminLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        overflow.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+            log.info("Spilled {} audit events on shutdown", remaining.size());
+        }
+    }
+
+    // ---------------- RECORD ----------------
+    // Attributes the event to the authenticated user of the current (servlet) request
+    public void record(String action, String targetId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        record(action, targetId, authentication != null ? authentication.getName() : null);
+    }
+
+    public void record(String action, String targetId, String adminId) {
+        if (!enabled) {
+            return;
+        }
+        AdminLog event = AdminLog.builder()
+                .id(new ObjectId().toHexString())
+                .adminId(adminId)
+                .action(action)
+                .targetId(targetId)
+                .timestamp(new Date())
+                .build();
+        // Never blocks or does I/O on the caller's thread, which may be a request or event-loop thread
+        if (!queue.offer(event) && !overflow.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    // ---------------- WRITER ----------------
+    private void run() {
+        replaySpill();
+        List<AdminLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+            spillOverflow();
+            try {
+                AdminLog first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    // Fill up to a full batch, waiting at most one flush interval overall
+                    long deadline = System.nanoTime() + flushInterval.toNanos();
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        AdminLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+            }
+
+            if (!batch.isEmpty()) {
+                if (flush(batch) && batch.size() < batchSize) {
+                    replaySpill();
+                }
+                batch.clear();
+            } else if (running) {
+                replaySpill();
+            }
+        }
+    }
+
+    private boolean flush(List<AdminLog> batch) {
+        try {
+            insert(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (DataAccessException e) {
+            flushFailures.increment();
+            log.warn("Could not write {} audit events, spilling to {}: {}", batch.size(), spillFile, e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    // ---------------- SPILL FILE ----------------
+    private void spillOverflow() {
+        if (overflow.isEmpty()) {
+            return;
+        }
+        List<AdminLog> events = new ArrayList<>();
+        overflow.drainTo(events);
+        spill(events);
+    }
+
+    private void spill(List<AdminLog> events) {
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AdminLog event : events) {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                }
+                spilled.increment(events.size());
+            } catch (IOException e) {
+                dropped.increment(events.size());
+                log.error("Dropped {} audit events, spill file {} not writable: {}", events.size(), spillFile,
+                        e.getMessage());
+            }
+        }
+    }
+
+    // Moves the spill file aside so new overflow starts a fresh one, then inserts it in batches,
+    // recording the lines done after each batch so a failed replay resumes where it stopped
+    private void replaySpill() {
+        Path replay = spillSibling(".replay");
+        Path progress = spillSibling(".replay.progress");
+        try {
+            synchronized (spillLock) {
+                if (Files.notExists(replay)) {
+                    if (Files.notExists(spillFile) || Files.size(spillFile) == 0) {
+                        return;
+                    }
+                    // Progress of an earlier replay file that was already removed
+                    Files.deleteIfExists(progress);
+                    Files.move(spillFile, replay, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+
+            long done = readProgress(progress);
+            List<AdminLog> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            long replayed = 0;
+            try (BufferedReader in = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber <= done || line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        batch.add(objectMapper.readValue(line, AdminLog.class));
+                    } catch (JsonProcessingException e) {
+                        quarantine(line, e);
+                    }
+                    if (batch.size() == batchSize) {
+                        insert(batch);
+                        written.increment(batch.size());
+                        replayed += batch.size();
+                        batch.clear();
+                        saveProgress(progress, lineNumber);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(batch);
+                written.increment(batch.size());
+                replayed += batch.size();
+            }
+            Files.delete(replay);
+            Files.deleteIfExists(progress);
+            log.info("Replayed {} spilled audit events", replayed);
+        } catch (IOException e) {
+            log.warn("Could not replay audit spill file {}: {}", replay, e.getMessage());
+        } catch (DataAccessException e) {
+            // Left in place for the next attempt
+            flushFailures.increment();
+            log.debug("Audit spill replay deferred: {}", e.getMessage());
+        }
+    }
+
+    private void quarantine(String line, JsonProcessingException cause) {
+        Path bad = spillSibling(".bad");
+        try (BufferedWriter out = Files.newBufferedWriter(bad, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+            out.newLine();
+            quarantined.increment();
+            log.warn("Moved unreadable spilled audit event to {}: {}", bad, cause.getOriginalMessage());
+        } catch (IOException e) {
+            dropped.increment();
+            log.error("Dropped unreadable spilled audit event, {} not writable: {}", bad, e.getMessage());
+        }
+    }
+
+    // A crash between a batch insert and this write replays that one batch again, which is the
+    // duplicate case insert() already tolerates
+    private static void saveProgress(Path progress, long lines) throws IOException {
+        Path next = progress.resolveSibling(progress.getFileName() + ".tmp");
+        Files.writeString(next, Long.toString(lines), StandardCharsets.UTF_8);
+        Files.move(next, progress, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long readProgress(Path progress) throws IOException {
+        if (Files.notExists(progress)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(progress, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring unreadable audit replay progress {}, replaying from the start", progress);
+            return 0;
+        }
+    }
+
+    private Path spillSibling(String suffix) {
+        return spillFile.resolveSibling(spillFile.getFileName() + suffix);
+    }
+
+    // Duplicate-key errors only arise on a pre-existing regular admin_logs collection; time-series
+    // collections do not enforce unique ids, so a retried partial batch can leave a few duplicates there
+    private void insert(List<AdminLog> events) {
+        ensureCollection();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AdminLog.class);
+        bulk.insert(new ArrayList<>(events));
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    private void ensureCollection() {
+        if (collectionReady) {
+            return;
+        }
+
+        Document existing = mongoTemplate.getDb().listCollections()
+                .filter(Filters.eq("name", COLLECTION))
+                .first();
+        if (existing == null) {
+            try {
+                mongoTemplate.createCollection(AdminLog.class, CollectionOptions.timeSeries("timestamp",
+                        options -> options.metaField("adminId")
+                                .granularity(Granularity.SECONDS)
+                                .expireAfter(retention)));
+            } catch (DataAccessException e) {
+                // Another instance created it first
+                if (!mongoTemplate.collectionExists(AdminLog.class)) {
+                    throw e;
+                }
+            }
+            log.info("Created time-series collection '{}' (retention {})", COLLECTION, retention);
+        } else if (!"timeseries".equals(existing.getString("type"))) {
+            log.warn("'{}' is a regular collection; it has no time-series bucketing or retention", COLLECTION);
+        }
+
+        // Secondary index for an admin's actions over a time range, newest first
+        mongoTemplate.indexOps(AdminLog.class)
+                .createIndex(new Index().on("adminId", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC));
+        collectionReady = true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.mongoRedis.audit.controller;
+
+import com.example.mongoRedis.audit.service.AdminLogService;
+import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.model.AdminLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdminLogController {
+
+    private final AdminLogService adminLogService;
+
+    public AdminLogController(AdminLogService adminLogService) {
+        this.adminLogService = adminLogService;
+    }
+
+    // e.g. ?adminId=...&from=2025-01-01T00:00:00Z&to=2025-01-02T00:00:00Z; defaults to the last 24 hours
+    @GetMapping(ApiEndpoints.Admin.LOGS)
+    public ApiResponse<CursorPage<AdminLog>> getAdminActions(
+            @RequestParam String adminId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return new ApiResponse<>(true, adminLogService.getAdminActions(adminId, from, to, cursor, size),
+                "Admin logs retrieved successfully");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mongoRedis.audit.service;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.model.AdminLog;
+
+import java.time.Instant;
+
+public interface AdminLogService {
+    // Newest first within [from, to)
+    CursorPage<AdminLog> getAdminActions(String adminId, Instant from, Instant to, String cursor, int size);
+}
@@ -0,0 +1,85 @@
+package com.example.mongoRedis.audit.service;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.exception.InvalidRequestException;
+import com.example.mongoRedis.user.dto.model.AdminLog;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class AdminLogServiceImpl implements AdminLogService {
+
+    private static final int DEFAULT_SIZE = 50;
+    private static final int MAX_SIZE = 1000;
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+
+    private final MongoTemplate mongoTemplate;
+
+    public AdminLogServiceImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Keyset paging on (timestamp, id) over the (adminId, timestamp) index; only the buckets
+    // of this admin that overlap the range are opened
+    @Override
+    public CursorPage<AdminLog> getAdminActions(String adminId, Instant from, Instant to, String cursor, int size) {
+        if (adminId == null || adminId.isBlank()) {
+            throw new InvalidRequestException("adminId is required");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (!start.isBefore(end)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        int limit = size < 1 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+
+        Criteria criteria = where("adminId").is(adminId)
+                .and("timestamp").gte(Date.from(start)).lt(Date.from(end));
+        if (cursor != null && !cursor.isBlank()) {
+            Position after = decode(cursor);
+            Date timestamp = new Date(after.timestamp());
+            criteria = criteria.orOperator(
+                    where("timestamp").lt(timestamp),
+                    where("timestamp").is(timestamp).and("_id").lt(after.id()));
+        }
+
+        List<AdminLog> found = mongoTemplate.find(Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "_id"))
+                .limit(limit + 1), AdminLog.class);
+        List<AdminLog> content = found.subList(0, Math.min(limit, found.size()));
+        return CursorPage.<AdminLog>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(found.size() > limit ? encode(content.get(content.size() - 1)) : null)
+                .build();
+    }
+
+    // ---------------- HELPER ----------------
+    private record Position(long timestamp, String id) {}
+
+    private static String encode(AdminLog last) {
+        String position = last.getTimestamp().getTime() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+            return new Position(Long.parseLong(parts[0]), parts[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
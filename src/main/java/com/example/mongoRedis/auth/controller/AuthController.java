@@ -8,10 +8,12 @@ import com.example.mongoRedis.auth.service.AuthService;
 import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
 import com.example.mongoRedis.common.response.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping
 @RequiredArgsConstructor
 public class AuthController {
@@ -33,4 +35,9 @@ public class AuthController {
         authService.logout(token);
         return ResponseEntity.ok(new ApiResponse<>(true, null, "Successfully logged out"));
     }
+
+    @PostMapping(ApiEndpoints.Auth.LOGOUT_ALL)
+    public ResponseEntity<ApiResponse<Void>> logoutAll(@RequestHeader("Authorization") String token) {
+        return ResponseEntity.ok(authService.logoutAll(token));
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.mongoRedis.auth.controller;
+
+import com.example.mongoRedis.auth.dto.request.LoginRequest;
+import com.example.mongoRedis.auth.dto.request.RefreshTokenRequest;
+import com.example.mongoRedis.auth.dto.response.LoginResponse;
+import com.example.mongoRedis.auth.dto.response.RefreshTokenResponse;
+import com.example.mongoRedis.auth.service.ReactiveAuthService;
+import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
+import com.example.mongoRedis.common.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of AuthController, active when the app runs as a WebFlux application
+@RestController
+@RequestMapping
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+
+    @PostMapping(ApiEndpoints.Auth.LOGIN)
+    public Mono<ApiResponse<LoginResponse>> login(@RequestBody LoginRequest request) {
+        return authService.login(request);
+    }
+
+    @PostMapping(ApiEndpoints.Auth.REFRESH)
+    public Mono<ApiResponse<RefreshTokenResponse>> refresh(@RequestBody RefreshTokenRequest request) {
+        return authService.refreshToken(request);
+    }
+
+    @PostMapping(ApiEndpoints.Auth.LOGOUT)
+    public Mono<ApiResponse<Void>> logout(@RequestHeader("Authorization") String token) {
+        return authService.logout(token)
+                .thenReturn(new ApiResponse<>(true, null, "Successfully logged out"));
+    }
+
+    @PostMapping(ApiEndpoints.Auth.LOGOUT_ALL)
+    public Mono<ApiResponse<Void>> logoutAll(@RequestHeader("Authorization") String token) {
+        return authService.logoutAll(token);
+    }
+}
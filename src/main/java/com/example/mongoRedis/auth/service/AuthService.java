@@ -15,4 +15,6 @@ public interface AuthService {
     ApiResponse<RefreshTokenResponse> refreshToken(RefreshTokenRequest request);
 
     ApiResponse<Void> logout(String token);
+
+    ApiResponse<Void> logoutAll(String token);
 }
@@ -6,41 +6,53 @@ import com.example.mongoRedis.auth.dto.response.LoginResponse;
 import com.example.mongoRedis.auth.dto.response.RefreshTokenResponse;
 import com.example.mongoRedis.common.response.ApiResponse;
 import com.example.mongoRedis.common.util.PasswordEncoderUtil;
+import com.example.mongoRedis.common.util.PasswordHashExecutor;
 import com.example.mongoRedis.exception.CustomServiceException;
 import com.example.mongoRedis.jwt.JwtService;
 import com.example.mongoRedis.jwt.RedisTokenService;
+import com.example.mongoRedis.jwt.VerifiedClaims;
 import com.example.mongoRedis.user.dto.model.User;
 import com.example.mongoRedis.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoderUtil passwordEncoder;
     private final JwtService jwtService;
     private final RedisTokenService redisTokenService;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public ApiResponse<LoginResponse> login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new CustomServiceException("Invalid email or password"));
 
-        // if (!passwordEncoder.matches(request.getPassword(),
-        // user.getCredentials().getPassword())) {
-        // throw new CustomServiceException("Invalid email or password");
-        // }
-        if (!request.getPassword().equals(user.getCredentials().getPassword())) {
+        String storedPassword = user.getCredentials() != null ? user.getCredentials().getPassword() : null;
+        if (storedPassword == null || !passwordHashExecutor.verify(request.getPassword(), storedPassword)) {
             throw new CustomServiceException("Invalid email or password");
         }
+        rehashIfNeeded(user.getId(), storedPassword, request.getPassword());
 
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        // Each login is its own session, so other devices stay signed in
+        String sessionId = jwtService.newSessionId();
+        String accessToken = jwtService.generateToken(user, sessionId);
+        String refreshToken = jwtService.generateRefreshToken(user, sessionId);
 
-        redisTokenService.storeAccessToken(user.getId(), accessToken);
-        redisTokenService.storeRefreshToken(user.getId(), refreshToken);
+        redisTokenService.storeSession(user.getId(), sessionId, accessToken, refreshToken);
 
         LoginResponse response = LoginResponse.builder()
                 .accessToken(accessToken)
@@ -52,25 +64,24 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public ApiResponse<RefreshTokenResponse> refreshToken(RefreshTokenRequest request) {
-        String userId = jwtService.extractUserId(request.getRefreshToken());
-
-        if (!redisTokenService.isRefreshTokenValid(userId, request.getRefreshToken())) {
+        VerifiedClaims claims = jwtService.verify(request.getRefreshToken());
+        if (claims == null || claims.getUserId() == null || claims.getSessionId() == null) {
             throw new CustomServiceException("Invalid refresh token");
         }
+        String userId = claims.getUserId();
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new CustomServiceException("User not found"));
 
-        if (!redisTokenService.isRefreshTokenValid(userId, request.getRefreshToken())) {
+        String newAccessToken = jwtService.generateToken(user, claims.getSessionId());
+        String newRefreshToken = jwtService.generateRefreshToken(user, claims.getSessionId());
+
+        // Check and swap in one script: a refresh token replayed concurrently can only win once
+        if (!redisTokenService.rotateSession(userId, claims.getSessionId(), request.getRefreshToken(),
+                newAccessToken, newRefreshToken)) {
             throw new CustomServiceException("Invalid or expired refresh token");
         }
 
-        String newAccessToken = jwtService.generateToken(user);
-        String newRefreshToken = jwtService.generateRefreshToken(user);
-
-        redisTokenService.storeAccessToken(userId, newAccessToken);
-        redisTokenService.storeRefreshToken(userId, newRefreshToken);
-
         RefreshTokenResponse response = RefreshTokenResponse.builder()
                 .accessToken(newAccessToken)
                 .refreshToken(newRefreshToken)
@@ -79,19 +90,52 @@ public class AuthServiceImpl implements AuthService {
         return new ApiResponse<>(true, response, "Token refreshed successfully");
     }
 
+    // Ends the session the token belongs to; the user's other devices stay signed in
     @Override
     public ApiResponse<Void> logout(String token) {
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
-        }
-        String userId = jwtService.extractUserId(token);
-        if (userId != null) {
-            redisTokenService.deleteAccessToken(userId);
-            redisTokenService.deleteRefreshToken(userId);
+        VerifiedClaims claims = jwtService.verify(bearer(token));
+        if (claims != null && claims.getUserId() != null && claims.getSessionId() != null) {
+            redisTokenService.deleteSession(claims.getUserId(), claims.getSessionId());
         }
         return new ApiResponse<>(true, null, "Successfully logged out");
     }
 
+    // Ends every session of the user, so the token must belong to a session that is still signed in;
+    // a signature alone would let a revoked or refresh token sign everyone out
+    @Override
+    public ApiResponse<Void> logoutAll(String token) {
+        String accessToken = bearer(token);
+        VerifiedClaims claims = jwtService.verify(accessToken);
+        if (claims == null || claims.getUserId() == null
+                || !redisTokenService.isAccessTokenValid(claims.getUserId(), claims.getSessionId(), accessToken)) {
+            throw new CustomServiceException("Invalid or expired access token");
+        }
+        redisTokenService.deleteAllSessions(claims.getUserId());
+        return new ApiResponse<>(true, null, "Logged out of all sessions");
+    }
+
+    // Replaces plaintext, unprefixed or weaker hashes after a successful login, off the request path.
+    // Matching on the old value keeps a password changed in the meantime.
+    private void rehashIfNeeded(String userId, String storedPassword, String rawPassword) {
+        if (!passwordEncoder.needsRehash(storedPassword)) {
+            return;
+        }
+        // Non-async on purpose: the update runs on the hash thread that produced the hash, not on the
+        // common pool. One indexed write is short next to the hash itself.
+        passwordHashExecutor.encodeAsync(rawPassword)
+                .thenAccept(hash -> mongoTemplate.updateFirst(
+                        Query.query(where("_id").is(userId).and("credentials.password").is(storedPassword)),
+                        Update.update("credentials.password", hash), User.class))
+                .exceptionally(e -> {
+                    log.debug("Password rehash for user {} skipped: {}", userId, e.getMessage());
+                    return null;
+                });
+    }
+
+    private static String bearer(String token) {
+        return token != null && token.startsWith("Bearer ") ? token.substring(7) : token;
+    }
+
     // private User mapToUserEntity(SignupRequest request) {
     // Credentials credentials = Credentials.builder()
     // .username(request.getEmail())
@@ -0,0 +1,19 @@
+package com.example.mongoRedis.auth.service;
+
+import com.example.mongoRedis.auth.dto.request.LoginRequest;
+import com.example.mongoRedis.auth.dto.request.RefreshTokenRequest;
+import com.example.mongoRedis.auth.dto.response.LoginResponse;
+import com.example.mongoRedis.auth.dto.response.RefreshTokenResponse;
+import com.example.mongoRedis.common.response.ApiResponse;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthService {
+
+    Mono<ApiResponse<LoginResponse>> login(LoginRequest request);
+
+    Mono<ApiResponse<RefreshTokenResponse>> refreshToken(RefreshTokenRequest request);
+
+    Mono<ApiResponse<Void>> logout(String token);
+
+    Mono<ApiResponse<Void>> logoutAll(String token);
+}
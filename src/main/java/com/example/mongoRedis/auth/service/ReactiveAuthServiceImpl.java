@@ -0,0 +1,140 @@
+package com.example.mongoRedis.auth.service;
+
+import com.example.mongoRedis.auth.dto.request.LoginRequest;
+import com.example.mongoRedis.auth.dto.request.RefreshTokenRequest;
+import com.example.mongoRedis.auth.dto.response.LoginResponse;
+import com.example.mongoRedis.auth.dto.response.RefreshTokenResponse;
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.common.util.PasswordEncoderUtil;
+import com.example.mongoRedis.common.util.PasswordHashExecutor;
+import com.example.mongoRedis.exception.CustomServiceException;
+import com.example.mongoRedis.jwt.JwtService;
+import com.example.mongoRedis.jwt.ReactiveRedisTokenService;
+import com.example.mongoRedis.jwt.VerifiedClaims;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthServiceImpl implements ReactiveAuthService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAuthServiceImpl.class);
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtService jwtService;
+    private final ReactiveRedisTokenService redisTokenService;
+    private final PasswordEncoderUtil passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<ApiResponse<LoginResponse>> login(LoginRequest request) {
+        return userRepository.findByEmail(request.getEmail())
+                .switchIfEmpty(Mono.error(() -> new CustomServiceException("Invalid email or password")))
+                .flatMap(user -> {
+                    String storedPassword = user.getCredentials() != null ? user.getCredentials().getPassword() : null;
+                    if (storedPassword == null) {
+                        return Mono.error(new CustomServiceException("Invalid email or password"));
+                    }
+                    // Hashed on the bounded pool, never on an event-loop thread
+                    return Mono.fromFuture(() -> passwordHashExecutor.verifyAsync(request.getPassword(), storedPassword))
+                            .flatMap(matches -> matches
+                                    ? Mono.just(user)
+                                    : Mono.error(new CustomServiceException("Invalid email or password")))
+                            .doOnNext(verified ->
+                                    rehashIfNeeded(verified.getId(), storedPassword, request.getPassword()));
+                })
+                .flatMap(user -> {
+                    String sessionId = jwtService.newSessionId();
+                    String accessToken = jwtService.generateToken(user, sessionId);
+                    String refreshToken = jwtService.generateRefreshToken(user, sessionId);
+
+                    return redisTokenService.storeSession(user.getId(), sessionId, accessToken, refreshToken)
+                            .thenReturn(LoginResponse.builder()
+                                    .accessToken(accessToken)
+                                    .refreshToken(refreshToken)
+                                    .build());
+                })
+                .map(response -> new ApiResponse<>(true, response, "Login successful"));
+    }
+
+    @Override
+    public Mono<ApiResponse<RefreshTokenResponse>> refreshToken(RefreshTokenRequest request) {
+        VerifiedClaims claims = jwtService.verify(request.getRefreshToken());
+        if (claims == null || claims.getUserId() == null || claims.getSessionId() == null) {
+            return Mono.error(new CustomServiceException("Invalid refresh token"));
+        }
+        String userId = claims.getUserId();
+
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new CustomServiceException("User not found")))
+                .flatMap(user -> {
+                    String newAccessToken = jwtService.generateToken(user, claims.getSessionId());
+                    String newRefreshToken = jwtService.generateRefreshToken(user, claims.getSessionId());
+
+                    // Check and swap in one script: a refresh token replayed concurrently can only win once
+                    return redisTokenService.rotateSession(userId, claims.getSessionId(), request.getRefreshToken(),
+                                    newAccessToken, newRefreshToken)
+                            .filter(Boolean::booleanValue)
+                            .switchIfEmpty(Mono.error(() -> new CustomServiceException("Invalid or expired refresh token")))
+                            .thenReturn(RefreshTokenResponse.builder()
+                                    .accessToken(newAccessToken)
+                                    .refreshToken(newRefreshToken)
+                                    .build());
+                })
+                .map(response -> new ApiResponse<>(true, response, "Token refreshed successfully"));
+    }
+
+    @Override
+    public Mono<ApiResponse<Void>> logout(String token) {
+        VerifiedClaims claims = jwtService.verify(bearer(token));
+        Mono<Void> revoke = claims == null || claims.getUserId() == null || claims.getSessionId() == null
+                ? Mono.empty()
+                : redisTokenService.deleteSession(claims.getUserId(), claims.getSessionId()).then();
+        return revoke.thenReturn(new ApiResponse<>(true, null, "Successfully logged out"));
+    }
+
+    // Same rule as the servlet stack: only a token of a session that is still signed in ends them all
+    @Override
+    public Mono<ApiResponse<Void>> logoutAll(String token) {
+        String accessToken = bearer(token);
+        VerifiedClaims claims = jwtService.verify(accessToken);
+        if (claims == null || claims.getUserId() == null) {
+            return Mono.error(new CustomServiceException("Invalid or expired access token"));
+        }
+        return redisTokenService.isAccessTokenValid(claims.getUserId(), claims.getSessionId(), accessToken)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new CustomServiceException("Invalid or expired access token")))
+                .then(redisTokenService.deleteAllSessions(claims.getUserId()))
+                .thenReturn(new ApiResponse<>(true, null, "Logged out of all sessions"));
+    }
+
+    // Replaces plaintext, unprefixed or weaker hashes after a successful login, off the request path.
+    // Matching on the old value keeps a password changed in the meantime.
+    private void rehashIfNeeded(String userId, String storedPassword, String rawPassword) {
+        if (!passwordEncoder.needsRehash(storedPassword)) {
+            return;
+        }
+        Mono.fromFuture(() -> passwordHashExecutor.encodeAsync(rawPassword))
+                .flatMap(hash -> mongoTemplate.updateFirst(
+                        Query.query(where("_id").is(userId).and("credentials.password").is(storedPassword)),
+                        Update.update("credentials.password", hash), User.class))
+                .subscribe(null, e -> log.debug("Password rehash for user {} skipped: {}", userId, e.getMessage()));
+    }
+
+    private static String bearer(String token) {
+        return token != null && token.startsWith("Bearer ") ? token.substring(7) : token;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.mongoRedis.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation counters for derived caches (lists, aggregates). Their keys embed the current
+ * generation of the source cache, so a write only has to bump one counter instead of clearing
+ * every derived entry; the old entries simply stop being read and age out by TTL.
+ * Counters live in Redis so all instances agree; while Redis is down a local counter is used,
+ * and a bump that did not reach Redis is made up with one INCR as soon as it is reachable again,
+ * so pages cached under the pre-outage generation are not served after recovery.
+ */
+@Component
+public class CacheGenerations {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheGenerations.class);
+
+    private static final String KEY_PREFIX = "cache:gen:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrentMap<String, AtomicLong> local = new ConcurrentHashMap<>();
+    private final Set<String> missedBumps = ConcurrentHashMap.newKeySet();
+
+    public CacheGenerations(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+    }
+
+    public String current(String cacheName) {
+        if (redisTemplate != null) {
+            try {
+                catchUp(cacheName);
+                String value = redisTemplate.opsForValue().get(KEY_PREFIX + cacheName);
+                return value != null ? value : "0";
+            } catch (DataAccessException e) {
+                log.warn("Could not read cache generation for '{}', using local counter: {}", cacheName, e.getMessage());
+            }
+        }
+        // Prefixed so local generations never collide with shared ones
+        return "local-" + localCounter(cacheName).get();
+    }
+
+    public void bump(String cacheName) {
+        localCounter(cacheName).incrementAndGet();
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().increment(KEY_PREFIX + cacheName);
+                // Also covers any bump missed earlier; one increment is enough to retire those pages
+                missedBumps.remove(cacheName);
+            } catch (DataAccessException e) {
+                missedBumps.add(cacheName);
+                log.warn("Could not bump cache generation for '{}': {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    private void catchUp(String cacheName) {
+        if (!missedBumps.remove(cacheName)) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().increment(KEY_PREFIX + cacheName);
+            log.info("Applied cache generation bump for '{}' that was missed while Redis was unavailable", cacheName);
+        } catch (DataAccessException e) {
+            missedBumps.add(cacheName);
+            throw e;
+        }
+    }
+
+    private AtomicLong localCounter(String cacheName) {
+        return local.computeIfAbsent(cacheName, name -> new AtomicLong());
+    }
+}
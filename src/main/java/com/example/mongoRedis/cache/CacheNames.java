@@ -0,0 +1,16 @@
+package com.example.mongoRedis.cache;
+
+public final class CacheNames {
+
+    private CacheNames() {} // prevent instantiation
+
+    public static final String USERS = "users";
+    public static final String ROLES = "roles";
+
+    // Keyed by the users generation (see CacheGenerations)
+    public static final String USER_PAGES = "userPages";
+
+    // Per (user, semester) views, evicted on writes (see SemesterViewCache)
+    public static final String STUDENT_COURSES = "studentCourses";
+    public static final String TEACHER_CLASSES = "teacherClasses";
+}
@@ -0,0 +1,9 @@
+package com.example.mongoRedis.cache;
+
+// Format written to Redis for typed caches; both are read regardless
+public enum CacheSerializationFormat {
+    // GenericJackson2JsonRedisSerializer: self-describing, carries @class in every entry; readable by every version
+    JSON,
+    // CompactCacheSerializer: headerless Smile for a fixed value type, LZ4 above a size threshold
+    SMILE
+}
@@ -0,0 +1,65 @@
+package com.example.mongoRedis.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Hit, miss and eviction meters of one {@link TieredCache}, tagged by cache name and tier.
+ * L1 figures are read from Caffeine's own statistics when scraped; L2 lookups are counted as
+ * they happen. L2 evictions are explicit ones only, since Redis expires entries on its own.
+ */
+final class CacheTierMetrics {
+
+    static final CacheTierMetrics NONE = new CacheTierMetrics(null, null, null);
+
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Evictions;
+
+    private CacheTierMetrics(Counter l2Hits, Counter l2Misses, Counter l2Evictions) {
+        this.l2Hits = l2Hits;
+        this.l2Misses = l2Misses;
+        this.l2Evictions = l2Evictions;
+    }
+
+    // l1 must be built with recordStats()
+    static CacheTierMetrics register(MeterRegistry registry, String cacheName,
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> l1) {
+        Tags l1Tags = Tags.of("cache", cacheName, "tier", "l1");
+        FunctionCounter.builder("cache.tier.gets", l1, cache -> cache.stats().hitCount())
+                .tags(l1Tags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.gets", l1, cache -> cache.stats().missCount())
+                .tags(l1Tags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.evictions", l1, cache -> cache.stats().evictionCount())
+                .tags(l1Tags)
+                .description("Entries dropped for size or expiry")
+                .register(registry);
+        Gauge.builder("cache.tier.size", l1, cache -> cache.estimatedSize())
+                .tags(l1Tags)
+                .register(registry);
+
+        Tags l2Tags = Tags.of("cache", cacheName, "tier", "l2");
+        return new CacheTierMetrics(
+                Counter.builder("cache.tier.gets").tags(l2Tags).tag("result", "hit").register(registry),
+                Counter.builder("cache.tier.gets").tags(l2Tags).tag("result", "miss").register(registry),
+                Counter.builder("cache.tier.evictions").tags(l2Tags).register(registry));
+    }
+
+    void l2Lookups(int hits, int misses) {
+        if (l2Hits != null) {
+            l2Hits.increment(hits);
+            l2Misses.increment(misses);
+        }
+    }
+
+    void l2Evicted() {
+        if (l2Evictions != null) {
+            l2Evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.mongoRedis.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Batch cache access that uses the TieredCache fast paths and falls back to per-key calls for other caches
+public final class Caches {
+
+    private Caches() {} // prevent instantiation
+
+    public static Map<Object, Object> getAll(Cache cache, Collection<?> keys) {
+        if (cache instanceof TieredCache tieredCache) {
+            return tieredCache.getAll(keys);
+        }
+        Map<Object, Object> found = new HashMap<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                found.put(key, wrapper.get());
+            }
+        }
+        return found;
+    }
+
+    public static void putAll(Cache cache, Map<?, ?> entries) {
+        if (cache instanceof TieredCache tieredCache) {
+            tieredCache.putAll(entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.mongoRedis.cache;
+
+import com.example.mongoRedis.user.dto.model.StudentCourse;
+import com.example.mongoRedis.user.dto.model.TeacherClass;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.SemesterViewCache;
+import com.example.mongoRedis.user.service.UserMapper;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tails MongoDB change streams on the collections behind our caches so writes that bypass the
+ * services (admin scripts, other applications) are reflected in near real time instead of after
+ * the cache TTL. Events are applied in batches: changed users are re-cached from the looked-up
+ * document in one pipelined write, deleted users are evicted, user list pages are retired by
+ * bumping the users generation once per batch, and the semester views of changed documents are evicted.
+ * <p>
+ * The resume token is stored in Redis after every applied batch, next to the data it describes:
+ * if Redis loses it, the caches it kept coherent are gone as well and tailing from "now" is correct.
+ * Only the holder of a Redis lease tails, so enabling this on every instance does no extra work.
+ * Change streams need a replica set or sharded cluster, hence disabled by default.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cache.change-stream", name = "enabled", havingValue = "true")
+public class ChangeStreamCacheSync {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamCacheSync.class);
+
+    static final String USERS_COLLECTION = "users";
+    static final String STUDENT_COURSES_COLLECTION = "student_courses";
+    static final String TEACHER_CLASSES_COLLECTION = "teacher_classes";
+
+    private static final List<String> COLLECTIONS =
+            List.of(USERS_COLLECTION, STUDENT_COURSES_COLLECTION, TEACHER_CLASSES_COLLECTION);
+
+    private static final String TOKEN_KEY = "cache:change-stream:token";
+    private static final String LEASE_KEY = "cache:change-stream:leader";
+
+    // InvalidResumeToken, ChangeStreamFatalError, ChangeStreamHistoryLost
+    private static final Set<Integer> RESUME_FAILURES = Set.of(260, 280, 286);
+
+    private static final RedisScript<Long> RENEW_LEASE =
+            RedisScript.of(new ClassPathResource("scripts/cache/renew_lease.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE =
+            RedisScript.of(new ClassPathResource("scripts/cache/release_lease.lua"), Long.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final CacheGenerations cacheGenerations;
+    private final UserMapper userMapper;
+    private final SemesterViewCache semesterViewCache;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${cache.change-stream.batch-size:200}")
+    private int batchSize;
+
+    @Value("${cache.change-stream.max-await:PT1S}")
+    private Duration maxAwait;
+
+    @Value("${cache.change-stream.lease-ttl:PT30S}")
+    private Duration leaseTtl;
+
+    @Value("${cache.change-stream.retry-interval:PT5S}")
+    private Duration retryInterval;
+
+    private volatile boolean running;
+    private Thread worker;
+    private String savedToken;
+
+    public ChangeStreamCacheSync(MongoTemplate mongoTemplate, StringRedisTemplate redisTemplate,
+            CacheManager cacheManager, CacheGenerations cacheGenerations, UserMapper userMapper,
+            SemesterViewCache semesterViewCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.cacheGenerations = cacheGenerations;
+        this.userMapper = userMapper;
+        this.semesterViewCache = semesterViewCache;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::run, "cache-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Change stream cache sync enabled for {}", COLLECTIONS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(maxAwait.multipliedBy(2).toMillis());
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_KEY), instanceId);
+        } catch (DataAccessException e) {
+            // The lease expires on its own
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (acquireLease()) {
+                    tail();
+                } else {
+                    pause(leaseTtl.dividedBy(3));
+                }
+            } catch (MongoCommandException e) {
+                if (RESUME_FAILURES.contains(e.getErrorCode())) {
+                    // Events since the stored token are gone: nothing cached before now can be trusted
+                    log.warn("Change stream cannot resume ({}), clearing caches and tailing from now", e.getErrorMessage());
+                    resetAll();
+                } else {
+                    log.warn("Change stream failed, retrying in {}: {}", retryInterval, e.getMessage());
+                    pause(retryInterval);
+                }
+            } catch (MongoException | DataAccessException e) {
+                log.warn("Change stream failed, retrying in {}: {}", retryInterval, e.getMessage());
+                pause(retryInterval);
+            }
+        }
+    }
+
+    // Returns when this instance loses the lease, the stream is invalidated, or the application stops
+    private void tail() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", COLLECTIONS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .batchSize(batchSize)
+                .maxAwaitTime(maxAwait.toMillis(), TimeUnit.MILLISECONDS);
+
+        savedToken = redisTemplate.opsForValue().get(TOKEN_KEY);
+        if (savedToken != null) {
+            stream = stream.resumeAfter(BsonDocument.parse(savedToken));
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            List<ChangeStreamDocument<Document>> batch = new ArrayList<>();
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null) {
+                    batch.add(event);
+                    if (batch.size() < batchSize) {
+                        continue;
+                    }
+                }
+
+                boolean invalidated = !batch.isEmpty() && apply(batch);
+                batch.clear();
+                if (invalidated) {
+                    return;
+                }
+
+                // The post-batch token also advances while idle, keeping restarts cheap
+                saveToken(cursor.getResumeToken());
+                if (!renewLease()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // ---------------- APPLY ----------------
+    // Returns true when the stream was invalidated (collection or database dropped/renamed)
+    private boolean apply(List<ChangeStreamDocument<Document>> batch) {
+        Map<String, UserResponse> refreshed = new LinkedHashMap<>();
+        Set<String> deleted = new LinkedHashSet<>();
+        boolean usersChanged = false;
+
+        for (ChangeStreamDocument<Document> event : batch) {
+            switch (event.getOperationType()) {
+                case INSERT, UPDATE, REPLACE, DELETE -> {
+                    switch (event.getNamespace().getCollectionName()) {
+                        case USERS_COLLECTION -> {
+                            collectUser(event, refreshed, deleted);
+                            usersChanged = true;
+                        }
+                        case STUDENT_COURSES_COLLECTION -> applySemesterChange(event, CacheNames.STUDENT_COURSES,
+                                "studentId", document -> semesterViewCache.studentCourseSaved(read(StudentCourse.class, document)));
+                        case TEACHER_CLASSES_COLLECTION -> applySemesterChange(event, CacheNames.TEACHER_CLASSES,
+                                "teacherId", document -> semesterViewCache.teacherClassSaved(read(TeacherClass.class, document)));
+                        default -> {
+                        }
+                    }
+                }
+                case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                    log.warn("Change stream received {}, clearing caches", event.getOperationType());
+                    resetAll();
+                    return true;
+                }
+                default -> {
+                    // OTHER: DDL events we do not cache anything for
+                }
+            }
+        }
+
+        Cache users = cacheManager.getCache(CacheNames.USERS);
+        if (users != null) {
+            Caches.putAll(users, refreshed);
+            deleted.forEach(users::evict);
+        }
+        if (usersChanged) {
+            cacheGenerations.bump(CacheNames.USERS);
+        }
+
+        log.debug("Applied {} change events: {} users refreshed, {} evicted", batch.size(), refreshed.size(), deleted.size());
+        return false;
+    }
+
+    // Last event per user wins within a batch
+    private void collectUser(ChangeStreamDocument<Document> event, Map<String, UserResponse> refreshed,
+            Set<String> deleted) {
+        String id = documentId(event.getDocumentKey());
+        if (id == null) {
+            return;
+        }
+
+        // The looked-up document is null when the user was deleted before the lookup ran
+        Document document = event.getFullDocument();
+        if (document == null) {
+            refreshed.remove(id);
+            deleted.add(id);
+        } else {
+            deleted.remove(id);
+            refreshed.put(id, userMapper.toResponse(read(User.class, document)));
+        }
+    }
+
+    // Saves evict the document's view; when the old view of a document cannot be known (deleted,
+    // its user or semester changed, or replaced wholesale, which carries no update description and
+    // may move it) the whole view cache is cleared instead
+    private void applySemesterChange(ChangeStreamDocument<Document> event, String cacheName, String ownerField,
+            Consumer<Document> saved) {
+        Document document = event.getFullDocument();
+        boolean keyChanged = event.getOperationType() == OperationType.REPLACE
+                || (event.getUpdateDescription() != null
+                        && event.getUpdateDescription().getUpdatedFields() != null
+                        && (event.getUpdateDescription().getUpdatedFields().containsKey(ownerField)
+                                || event.getUpdateDescription().getUpdatedFields().containsKey("semester")));
+        if (document == null || keyChanged) {
+            clear(cacheName);
+        } else {
+            saved.accept(document);
+        }
+    }
+
+    private <T> T read(Class<T> type, Document document) {
+        return mongoTemplate.getConverter().read(type, document);
+    }
+
+    private static String documentId(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    // Drops the resume token and everything it vouched for
+    private void resetAll() {
+        redisTemplate.delete(TOKEN_KEY);
+        savedToken = null;
+        for (String name : List.of(CacheNames.USERS, CacheNames.USER_PAGES, CacheNames.STUDENT_COURSES,
+                CacheNames.TEACHER_CLASSES)) {
+            clear(name);
+        }
+        cacheGenerations.bump(CacheNames.USERS);
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // ---------------- HELPER ----------------
+    private void saveToken(BsonDocument token) {
+        if (token == null) {
+            return;
+        }
+        String json = token.toJson();
+        if (!json.equals(savedToken)) {
+            redisTemplate.opsForValue().set(TOKEN_KEY, json);
+            savedToken = json;
+        }
+    }
+
+    private boolean acquireLease() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, instanceId, leaseTtl))
+                || renewLease();
+    }
+
+    private boolean renewLease() {
+        Long renewed = redisTemplate.execute(RENEW_LEASE, List.of(LEASE_KEY), instanceId,
+                String.valueOf(leaseTtl.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    private void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.mongoRedis.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Redis value serializer for caches with a known value type. Payloads are
+ * {@code [magic][version][flags][original length if LZ4][Smile body]}; the type is implied by the
+ * cache, so no class names are stored. Entries without the magic byte are read with the legacy
+ * JSON serializer; entries from an unknown version or that fail to decode are treated as misses.
+ * <p>
+ * Instances from before this format cannot read it, so writes stay legacy JSON until
+ * {@code writeCompact} is switched on, which is safe once every instance reads both formats.
+ */
+public class CompactCacheSerializer<T> implements RedisSerializer<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactCacheSerializer.class);
+
+    // Never the first byte of a JSON document, so legacy entries are told apart by one byte
+    static final byte MAGIC = (byte) 0xCE;
+    static final byte VERSION = 1;
+
+    private static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER = 3;
+    // Far above any cached view; a larger declared length can only come from a corrupt entry
+    private static final int MAX_ORIGINAL_LENGTH = 16 * 1024 * 1024;
+
+    private static final SmileMapper SMILE = SmileMapper.builder()
+            .disable(SmileGenerator.Feature.WRITE_HEADER)
+            .disable(SmileParser.Feature.REQUIRE_HEADER)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .findAndAddModules()
+            .build();
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int compressionThreshold;
+    private final boolean writeCompact;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+    private final RedisSerializer<Object> legacy = new GenericJackson2JsonRedisSerializer();
+
+    /**
+     * @param compressionThreshold Smile bodies at least this many bytes are LZ4-compressed; 0 or less disables it
+     * @param writeCompact         false writes legacy JSON, while entries of both formats are still read
+     */
+    public CompactCacheSerializer(Class<T> type, int compressionThreshold, boolean writeCompact) {
+        this.type = type;
+        this.reader = SMILE.readerFor(type);
+        this.writer = SMILE.writerFor(type);
+        this.compressionThreshold = compressionThreshold;
+        this.writeCompact = writeCompact;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!writeCompact) {
+            return legacy.serialize(value);
+        }
+
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + type.getSimpleName() + " as Smile", e);
+        }
+
+        if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+            byte[] compressed = new byte[HEADER + Integer.BYTES + compressor.maxCompressedLength(body.length)];
+            int length = compressor.compress(body, 0, body.length, compressed, HEADER + Integer.BYTES);
+            // Keep the compressed form only when it actually saves space
+            if (length < body.length) {
+                ByteBuffer.wrap(compressed).put(MAGIC).put(VERSION).put(FLAG_LZ4).putInt(body.length);
+                return Arrays.copyOf(compressed, HEADER + Integer.BYTES + length);
+            }
+        }
+
+        byte[] payload = new byte[HEADER + body.length];
+        payload[0] = MAGIC;
+        payload[1] = VERSION;
+        System.arraycopy(body, 0, payload, HEADER, body.length);
+        return payload;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            try {
+                Object value = legacy.deserialize(bytes);
+                return type.isInstance(value) ? type.cast(value) : null;
+            } catch (SerializationException e) {
+                log.warn("Could not read legacy {} cache entry, treating as a miss: {}", type.getSimpleName(),
+                        e.getMessage());
+                return null;
+            }
+        }
+        if (bytes.length < HEADER || bytes[1] != VERSION) {
+            log.debug("Skipping {} cache entry with unsupported format version {}", type.getSimpleName(),
+                    bytes.length > 1 ? bytes[1] : -1);
+            return null;
+        }
+
+        try {
+            if ((bytes[2] & FLAG_LZ4) == 0) {
+                return reader.readValue(bytes, HEADER, bytes.length - HEADER);
+            }
+            if (bytes.length < HEADER + Integer.BYTES) {
+                log.warn("Could not read {} cache entry, treating as a miss: truncated header", type.getSimpleName());
+                return null;
+            }
+            int originalLength = ByteBuffer.wrap(bytes, HEADER, Integer.BYTES).getInt();
+            if (originalLength <= 0 || originalLength > MAX_ORIGINAL_LENGTH) {
+                log.warn("Could not read {} cache entry, treating as a miss: invalid length {}", type.getSimpleName(),
+                        originalLength);
+                return null;
+            }
+            byte[] body = new byte[originalLength];
+            int decompressed = decompressor.decompress(bytes, HEADER + Integer.BYTES,
+                    bytes.length - HEADER - Integer.BYTES, body, 0, originalLength);
+            if (decompressed != originalLength) {
+                log.warn("Could not read {} cache entry, treating as a miss: {} of {} bytes", type.getSimpleName(),
+                        decompressed, originalLength);
+                return null;
+            }
+            return reader.readValue(body);
+        } catch (IOException | LZ4Exception e) {
+            // A miss reloads from Mongo and overwrites the bad entry
+            log.warn("Could not read {} cache entry, treating as a miss: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.mongoRedis.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class TieredCache implements Cache {
+
+    static final String OP_EVICT = "evict";
+    static final String OP_CLEAR = "clear";
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> l1;
+    private final Cache l2;
+    private final TieredCacheManager manager;
+    private final long l1TtlNanos;
+    private final CacheTierMetrics metrics;
+
+    // Loads in progress on this instance, shared by concurrent misses on the same key
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // Moving average of loader duration, the XFetch "delta"
+    private volatile long loadNanos;
+
+    TieredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> l1, Cache l2,
+            TieredCacheManager manager, Duration l1Ttl, CacheTierMetrics metrics) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.manager = manager;
+        this.l1TtlNanos = l1Ttl.toNanos();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = l1.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper remote = onL2(cache -> cache.get(key));
+        if (remote != null && remote.get() != null) {
+            l2Lookups(1, 0);
+            l1.put(key, remote.get());
+            return remote;
+        }
+        l2Lookups(0, 1);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Used by {@code @Cacheable(sync = true)}. Concurrent misses for a key share one load, L2 is
+     * read with its remaining TTL so hot entries can be refreshed early in the background, and with
+     * a lease configured only one instance at a time loads a given key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = l1.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+
+        TieredCacheManager.L2Entry remote = onL2(cache -> manager.getWithTtl(name, cache, key));
+        if (remote != null && remote.value() != null) {
+            l2Lookups(1, 0);
+            l1.put(key, remote.value());
+            if (shouldRefreshEarly(remote.ttlMillis())) {
+                manager.refreshAsync(() -> refresh(key, valueLoader));
+            }
+            return (T) remote.value();
+        }
+
+        l2Lookups(0, 1);
+        return (T) load(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        l1.put(key, value);
+        writeL2(cache -> cache.put(key, value));
+        manager.publish(name, OP_EVICT, key);
+    }
+
+    /**
+     * Batch variant of {@link #get(Object)}: L1 first, then a single MGET against Redis for the
+     * remaining keys. Returns only the keys that were found.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>(l1.getAllPresent(keys));
+        List<?> missing = keys.stream().filter(key -> !found.containsKey(key)).distinct().toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Object, Object> remote = onL2(cache -> manager.getAll(name, cache, missing));
+        int remoteHits = remote != null ? remote.size() : 0;
+        l2Lookups(remoteHits, missing.size() - remoteHits);
+        if (remote != null) {
+            l1.putAll(remote);
+            found.putAll(remote);
+        }
+        return found;
+    }
+
+    /**
+     * Batch variant of {@link #put}: fills L1 directly and writes all entries to Redis in a
+     * single pipeline instead of one round trip per key.
+     */
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        l1.putAll(entries);
+        writeL2(cache -> manager.putAll(name, cache, entries));
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.invalidate(key);
+        writeL2(cache -> {
+            cache.evict(key);
+            metrics.l2Evicted();
+        });
+        manager.publish(name, OP_EVICT, key);
+    }
+
+    @Override
+    public void clear() {
+        l1.invalidateAll();
+        writeL2(Cache::clear);
+        manager.publish(name, OP_CLEAR, null);
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing, key, valueLoader);
+        }
+
+        try {
+            Object value = manager.isLeaseEnabled() && l2 != null
+                    ? loadWithLease(key, valueLoader)
+                    : loadAndPut(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Background reload of a still-valid entry; skipped if a load for the key is already running
+    private void refresh(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            mine.complete(loadAndPut(key, valueLoader));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object loadWithLease(Object key, Callable<?> valueLoader) {
+        Boolean acquired = onL2(cache -> manager.tryAcquireLease(name, key));
+        if (!Boolean.FALSE.equals(acquired)) {
+            // Acquired, or Redis is unavailable and there is nobody to coordinate with
+            try {
+                return loadAndPut(key, valueLoader);
+            } finally {
+                if (acquired != null) {
+                    manager.releaseLease(name, key);
+                }
+            }
+        }
+
+        Object value = onL2(cache -> {
+            try {
+                return manager.awaitL2(name, cache, key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+        if (value != null) {
+            l1.put(key, value);
+            return value;
+        }
+        // The lease holder did not publish a value in time
+        return loadAndPut(key, valueLoader);
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        loadNanos = loadNanos == 0 ? elapsed : (loadNanos * 7 + elapsed) / 8;
+
+        put(key, value);
+        return value;
+    }
+
+    private static Object await(CompletableFuture<Object> future, Object key, Callable<?> valueLoader) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /*
+     * XFetch: refresh when ttl <= -delta * beta * ln(rand). delta is the larger of the measured
+     * load time and the L1 TTL, because an instance only looks at the Redis TTL once per L1
+     * expiry; the closer the entry is to expiring, the more likely a read triggers the refresh.
+     */
+    private boolean shouldRefreshEarly(long ttlMillis) {
+        double beta = manager.getEarlyRefreshBeta();
+        if (beta <= 0 || ttlMillis < 0) {
+            return false;
+        }
+        double deltaMillis = Math.max(loadNanos, l1TtlNanos) / 1_000_000.0;
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return ttlMillis <= -deltaMillis * beta * Math.log(random);
+    }
+
+    // Only counted when there is an L2 at all, so an L1-only setup does not report a 100% L2 miss rate
+    private void l2Lookups(int hits, int misses) {
+        if (l2 != null) {
+            metrics.l2Lookups(hits, misses);
+        }
+    }
+
+    void evictLocal(Object key) {
+        l1.invalidate(key);
+    }
+
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    void clearRemote() {
+        if (l2 != null) {
+            l2.clear();
+        }
+    }
+
+    // Runs an L2 operation unless Redis is known to be down; failures degrade to L1-only
+    private <T> T onL2(Function<Cache, T> operation) {
+        if (l2 == null || !manager.isL2Available()) {
+            return null;
+        }
+        try {
+            return operation.apply(l2);
+        } catch (DataAccessException e) {
+            manager.l2Failed(name, e);
+            return null;
+        }
+    }
+
+    // Like onL2, but a write that does not reach Redis is reported so the cache is cleared on recovery
+    private void writeL2(Consumer<Cache> operation) {
+        if (l2 == null) {
+            return;
+        }
+        if (!manager.isL2Available()) {
+            manager.l2WriteMissed(name);
+            return;
+        }
+        try {
+            operation.accept(l2);
+        } catch (DataAccessException e) {
+            manager.l2Failed(name, e);
+            manager.l2WriteMissed(name);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.mongoRedis.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Two-level cache manager: a bounded Caffeine L1 per instance in front of Redis as L2.
+ * Writes and evictions are broadcast on {@value #CHANNEL} so other instances drop their
+ * L1 copy. When Redis fails at runtime, L2 is skipped for {@code l2RetryInterval} and
+ * reads are served from L1 only. Writes and invalidations skipped meanwhile are not replayed;
+ * instead the first caller after the outage clears every L1 and the L2 of each cache that
+ * missed a write, and broadcasts the clear, before L2 is used again.
+ * <p>
+ * Loads through {@link TieredCache#get(Object, Callable)} are coalesced per key on each instance,
+ * optionally guarded across instances by a Redis lease, and hot entries are refreshed in the
+ * background shortly before their Redis TTL runs out (XFetch).
+ */
+public class TieredCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredCacheManager.class);
+
+    static final String CHANNEL = "cache:invalidate";
+
+    private static final String LEASE_PREFIX = "lease:";
+    private static final long LEASE_POLL_MILLIS = 25;
+    private static final RedisScript<Long> RELEASE_LEASE =
+            RedisScript.of(new ClassPathResource("scripts/cache/release_lease.lua"), Long.class);
+
+    private final RedisCacheManager l2Manager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final long l1MaxSize;
+    private final Duration l1Ttl;
+    private final Duration l2RetryInterval;
+    private final Duration leaseTtl;
+    private final double earlyRefreshBeta;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    // Small and lossy on purpose: a dropped refresh just means the entry expires normally
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), daemonThreads("cache-refresh-"), new ThreadPoolExecutor.DiscardPolicy());
+
+    private volatile long l2RetryAt;
+
+    // Set by any L2 failure or skipped write; cleared once recoverL2 has run
+    private volatile boolean l2Outage;
+    private final AtomicBoolean recovering = new AtomicBoolean();
+    private final Set<String> missedWrites = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param leaseTtl         null disables the cross-instance loader lease
+     * @param earlyRefreshBeta XFetch aggressiveness; 0 disables early refresh
+     * @param meterRegistry    null disables per-tier cache metrics
+     */
+    @Builder
+    public TieredCacheManager(RedisCacheManager l2Manager, StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer, Map<String, Duration> ttls, Duration defaultTtl,
+            long l1MaxSize, Duration l1Ttl, Duration l2RetryInterval, Duration leaseTtl, double earlyRefreshBeta,
+            MeterRegistry meterRegistry) {
+        this.l2Manager = l2Manager;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttls = ttls != null ? ttls : Collections.emptyMap();
+        this.defaultTtl = defaultTtl;
+        this.l1MaxSize = l1MaxSize;
+        this.l1Ttl = l1Ttl;
+        this.l2RetryInterval = l2RetryInterval;
+        this.leaseTtl = leaseTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (l2Manager != null) {
+            l2Manager.afterPropertiesSet();
+        }
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener((message, pattern) -> onInvalidation(message),
+                    new ChannelTopic(CHANNEL));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TieredCache createCache(String name) {
+        Duration ttl = ttls.getOrDefault(name, defaultTtl);
+        Duration localTtl = ttl.compareTo(l1Ttl) < 0 ? ttl : l1Ttl;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(localTtl);
+        if (meterRegistry != null) {
+            builder.recordStats();
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> l1 = builder.build();
+        Cache l2 = l2Manager != null ? l2Manager.getCache(name) : null;
+
+        CacheTierMetrics metrics = meterRegistry != null
+                ? CacheTierMetrics.register(meterRegistry, name, l1)
+                : CacheTierMetrics.NONE;
+        return new TieredCache(name, l1, l2, this, localTtl, metrics);
+    }
+
+    // Other callers skip L2 while a recovery is running, so they cannot read entries it has yet to clear
+    boolean isL2Available() {
+        if (System.currentTimeMillis() < l2RetryAt) {
+            return false;
+        }
+        if (l2Outage && recovering.compareAndSet(false, true)) {
+            try {
+                recoverL2();
+            } finally {
+                recovering.set(false);
+            }
+        }
+        return !recovering.get() && System.currentTimeMillis() >= l2RetryAt;
+    }
+
+    void l2Failed(String cacheName, DataAccessException e) {
+        long now = System.currentTimeMillis();
+        if (now >= l2RetryAt) {
+            log.warn("Redis unavailable for cache '{}', serving from L1 for the next {}: {}",
+                    cacheName, l2RetryInterval, e.getMessage());
+        }
+        l2RetryAt = now + l2RetryInterval.toMillis();
+        // Invalidations from other instances may have been lost too
+        l2Outage = true;
+    }
+
+    // A write, eviction or invalidation that did not reach Redis; the cache is cleared on recovery
+    void l2WriteMissed(String cacheName) {
+        missedWrites.add(cacheName);
+        l2Outage = true;
+    }
+
+    /*
+     * Cleared before draining, so a write missed concurrently either is drained here or sets the
+     * flag again for the next caller. L1 is dropped everywhere because this instance may have
+     * missed other instances' invalidations while it could not reach Redis.
+     */
+    private void recoverL2() {
+        l2Outage = false;
+        caches.values().forEach(TieredCache::clearLocal);
+        for (String cacheName : missedWrites) {
+            missedWrites.remove(cacheName);
+            TieredCache cache = caches.get(cacheName);
+            try {
+                cache.clearRemote();
+                sendInvalidation(cacheName, TieredCache.OP_CLEAR, null);
+            } catch (DataAccessException e) {
+                l2Failed(cacheName, e);
+                l2WriteMissed(cacheName);
+                return;
+            }
+        }
+        log.info("Redis reachable again, dropped cache entries that may have gone stale during the outage");
+    }
+
+    void publish(String cacheName, String op, Object key) {
+        if (redisTemplate == null) {
+            return;
+        }
+        if (!isL2Available()) {
+            l2WriteMissed(cacheName);
+            return;
+        }
+        try {
+            sendInvalidation(cacheName, op, key);
+        } catch (DataAccessException e) {
+            l2Failed(cacheName, e);
+            l2WriteMissed(cacheName);
+        }
+    }
+
+    private void sendInvalidation(String cacheName, String op, Object key) {
+        redisTemplate.convertAndSend(CHANNEL, instanceId + "|" + cacheName + "|" + op + "|" + (key != null ? key : ""));
+    }
+
+    // Writes entries with the RedisCache's own key prefix, serializer and TTL, plus the
+    // matching invalidations, in one pipelined round trip
+    void putAll(String cacheName, Cache l2, Map<?, ?> entries) {
+        if (!(l2 instanceof RedisCache redisCache) || redisTemplate == null) {
+            entries.forEach(l2::put);
+            entries.keySet().forEach(key -> publish(cacheName, TieredCache.OP_EVICT, key));
+            return;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.getKeyPrefixFor(cacheName);
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> {
+                byte[] rawKey = rawKey(config, prefix, key);
+                byte[] rawValue = ByteUtils.getBytes(config.getValueSerializationPair().write(value));
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+
+                if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+                    connection.stringCommands().set(rawKey, rawValue, Expiration.from(ttl),
+                            RedisStringCommands.SetOption.upsert());
+                } else {
+                    connection.stringCommands().set(rawKey, rawValue);
+                }
+                connection.publish(channel, (instanceId + "|" + cacheName + "|" + TieredCache.OP_EVICT + "|" + key)
+                        .getBytes(StandardCharsets.UTF_8));
+            });
+            return null;
+        });
+    }
+
+    // GET and PTTL in one pipelined round trip; ttlMillis is negative when the key has no expiry
+    L2Entry getWithTtl(String cacheName, Cache l2, Object key) {
+        if (!(l2 instanceof RedisCache redisCache) || redisTemplate == null) {
+            Cache.ValueWrapper wrapper = l2.get(key);
+            return new L2Entry(wrapper != null ? wrapper.get() : null, -1);
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[] rawKey = rawKey(config, config.getKeyPrefixFor(cacheName), key);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(rawKey);
+            connection.keyCommands().pTtl(rawKey);
+            return null;
+        }, RedisSerializer.byteArray());
+
+        byte[] raw = (byte[]) results.get(0);
+        Object value = raw != null ? config.getValueSerializationPair().read(ByteBuffer.wrap(raw)) : null;
+        Long ttl = (Long) results.get(1);
+        return new L2Entry(value, ttl != null ? ttl : -1);
+    }
+
+    boolean isLeaseEnabled() {
+        return leaseTtl != null && redisTemplate != null && isL2Available();
+    }
+
+    Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    boolean tryAcquireLease(String cacheName, Object key) {
+        return Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(leaseKey(cacheName, key), instanceId, leaseTtl));
+    }
+
+    void releaseLease(String cacheName, Object key) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(leaseKey(cacheName, key)), instanceId);
+        } catch (DataAccessException e) {
+            // The lease expires on its own
+            l2Failed(cacheName, e);
+        }
+    }
+
+    // Polls L2 while another instance holds the lease; null if nothing arrived within the lease TTL
+    Object awaitL2(String cacheName, Cache l2, Object key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + leaseTtl.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(LEASE_POLL_MILLIS);
+            Cache.ValueWrapper wrapper = l2.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                return wrapper.get();
+            }
+        }
+        return null;
+    }
+
+    void refreshAsync(Runnable refresh) {
+        refreshExecutor.execute(refresh);
+    }
+
+    private static String leaseKey(String cacheName, Object key) {
+        return LEASE_PREFIX + cacheName + "::" + key;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    record L2Entry(Object value, long ttlMillis) {
+    }
+
+    // One MGET for all keys; returns only the keys that were present
+    Map<Object, Object> getAll(String cacheName, Cache l2, List<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        if (!(l2 instanceof RedisCache redisCache) || redisTemplate == null) {
+            keys.forEach(key -> {
+                Cache.ValueWrapper wrapper = l2.get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    found.put(key, wrapper.get());
+                }
+            });
+            return found;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.getKeyPrefixFor(cacheName);
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(config, prefix, key)).toArray(byte[][]::new);
+
+        List<byte[]> values = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] raw = values.get(i);
+            Object value = raw != null ? config.getValueSerializationPair().read(ByteBuffer.wrap(raw)) : null;
+            if (value != null) {
+                found.put(keys.get(i), value);
+            }
+        }
+        return found;
+    }
+
+    // Same key layout as RedisCache: prefix plus the key converted with the cache's ConversionService
+    private static byte[] rawKey(RedisCacheConfiguration config, String prefix, Object key) {
+        String cacheKey = prefix + config.getConversionService().convert(key, String.class);
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+
+    private void onInvalidation(Message message) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TieredCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (TieredCache.OP_CLEAR.equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
@@ -10,6 +10,7 @@ public final class ApiEndpoints {
         public static final String LOGIN = BASE + "/login";
         public static final String REFRESH = BASE + "/refresh";
         public static final String LOGOUT = BASE + "/logout";
+        public static final String LOGOUT_ALL = BASE + "/logout-all";
     }
 
     public static class User {
@@ -17,5 +18,21 @@ public final class ApiEndpoints {
         public static final String GET = BASE + "/{id}";
         public static final String CREATE = BASE + "/create";
         public static final String GET_ALL = BASE + "/all-users";
+        public static final String GET_ALL_CURSOR = GET_ALL + "/cursor";
+        public static final String BATCH = BASE + "/batch";
+        public static final String IMPORT = BASE + "/import";
+        public static final String EXPORT = BASE + "/export";
+    }
+
+    public static class Admin {
+        public static final String BASE = "/admin";
+        public static final String LOGS = BASE + "/logs";
+    }
+
+    public static class Roster {
+        public static final String STUDENT_CLASSES = User.BASE + "/{studentId}/classes";
+        public static final String STUDENT_TEACHERS = User.BASE + "/{studentId}/teachers";
+        public static final String CLASS_STUDENTS = User.BASE + "/classes/{classId}/students";
+        public static final String CLASS_STUDENT = CLASS_STUDENTS + "/{studentId}";
     }
 }
\ No newline at end of file
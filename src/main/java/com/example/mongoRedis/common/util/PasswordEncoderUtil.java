@@ -1,21 +1,75 @@
 package com.example.mongoRedis.common.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * New hashes are written as {@code {bcrypt}<hash>} at {@code security.password.bcrypt-cost}.
+ * Values stored before that, a bare BCrypt hash or a plaintext password, still verify, and
+ * {@link #needsRehash} reports them (and any hash below the configured cost or under another
+ * algorithm id) so a successful login can replace them.
+ */
 @Service
 public class PasswordEncoderUtil {
 
-    private final PasswordEncoder passwordEncoder;
+    private final DelegatingPasswordEncoder passwordEncoder;
 
-    public PasswordEncoderUtil() {
-        this.passwordEncoder = new BCryptPasswordEncoder(12);
+    public PasswordEncoderUtil(@Value("${security.password.bcrypt-cost:12}") int bcryptCost) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        this.passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        this.passwordEncoder.setDefaultPasswordEncoderForMatches(new LegacyPasswordEncoder(bcrypt));
     }
+
     public String encryptPassword(String rawPassword) {
         return passwordEncoder.encode(rawPassword);
     }
+
     public boolean matches(String rawPassword, String encryptedPassword) {
+        if (rawPassword == null || encryptedPassword == null) {
+            return false;
+        }
         return passwordEncoder.matches(rawPassword, encryptedPassword);
     }
-}
\ No newline at end of file
+
+    public boolean needsRehash(String encryptedPassword) {
+        return encryptedPassword != null && passwordEncoder.upgradeEncoding(encryptedPassword);
+    }
+
+    public PasswordEncoder getEncoder() {
+        return passwordEncoder;
+    }
+
+    // Unprefixed values: BCrypt hashes from before the {bcrypt} prefix, otherwise plaintext
+    private static class LegacyPasswordEncoder implements PasswordEncoder {
+
+        private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+        private final BCryptPasswordEncoder bcrypt;
+
+        LegacyPasswordEncoder(BCryptPasswordEncoder bcrypt) {
+            this.bcrypt = bcrypt;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Legacy passwords are only verified, never written");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (BCRYPT.matcher(encodedPassword).matches()) {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.mongoRedis.common.util;
+
+import com.example.mongoRedis.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a pool sized to the CPU count, so a login burst queues here instead
+ * of spending every request thread on BCrypt. Load is shed with a 503 when more than
+ * {@code security.password.queue-capacity} hashes are waiting, and a hash that waited longer than
+ * {@code security.password.max-wait} is skipped, since its caller has most likely given up.
+ */
+@Component
+public class PasswordHashExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashExecutor.class);
+
+    private static final String BUSY = "Too many sign-ins in progress. Please try again shortly.";
+
+    @Value("${security.password.threads:0}")
+    private int threads;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.max-wait:PT2S}")
+    private Duration maxWait;
+
+    private final PasswordEncoderUtil passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    private int poolSize;
+    private ThreadPoolExecutor executor;
+    private Timer verifyTimer;
+    private Timer encodeTimer;
+    private Timer queueWait;
+    private Counter rejectedQueueFull;
+    private Counter rejectedExpired;
+
+    public PasswordHashExecutor(PasswordEncoderUtil passwordEncoder, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        verifyTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time a hash spent waiting for a pool thread")
+                .register(meterRegistry);
+        rejectedQueueFull = Counter.builder("auth.password.rejected")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        rejectedExpired = Counter.builder("auth.password.rejected")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.password.queue.depth", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.password.active", executor, ThreadPoolExecutor::getActiveCount);
+
+        log.info("Password hashing pool started (threads={}, queueCapacity={}, maxWait={})",
+                poolSize, queueCapacity, maxWait);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // ---------------- VERIFY ----------------
+    // Blocks the calling request thread only while waiting; the hashing itself uses the pool
+    public boolean verify(String rawPassword, String encryptedPassword) {
+        return join(verifyAsync(rawPassword, encryptedPassword));
+    }
+
+    public CompletableFuture<Boolean> verifyAsync(String rawPassword, String encryptedPassword) {
+        return submit(verifyTimer, () -> passwordEncoder.matches(rawPassword, encryptedPassword));
+    }
+
+    // ---------------- ENCODE ----------------
+    public String encode(String rawPassword) {
+        return join(encodeAsync(rawPassword));
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encryptPassword(rawPassword));
+    }
+
+    // For bulk writes: keeps at most one pool's worth of these hashes queued or running, so an
+    // import never fills the queue that sign-ins are shed from. Blocks the caller between windows.
+    public List<CompletableFuture<String>> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (i >= poolSize) {
+                hashes.get(i - poolSize).handle((hash, e) -> null).join();
+            }
+            hashes.add(encodeAsync(rawPasswords.get(i)));
+        }
+        return hashes;
+    }
+
+    // Rethrows what the hash task threw, such as the 503 for a shed hash
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> hash) {
+        long enqueued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - enqueued;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxWait.toNanos()) {
+                    rejectedExpired.increment();
+                    throw new ServiceUnavailableException(BUSY, retryAfterSeconds());
+                }
+                return timer.record(hash);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(BUSY, retryAfterSeconds()));
+        }
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, (maxWait.toMillis() + 999) / 1000);
+    }
+}
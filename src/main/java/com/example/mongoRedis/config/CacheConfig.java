@@ -1,20 +1,31 @@
 package com.example.mongoRedis.config;
 
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.cache.CacheSerializationFormat;
+import com.example.mongoRedis.cache.CompactCacheSerializer;
+import com.example.mongoRedis.cache.TieredCacheManager;
+import com.example.mongoRedis.user.dto.response.StudentSemesterView;
+import com.example.mongoRedis.user.dto.response.TeacherSemesterView;
+import com.example.mongoRedis.user.dto.response.UserPage;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Configuration
@@ -23,29 +34,103 @@ public class CacheConfig {
 
     private static final Logger log = LoggerFactory.getLogger(CacheConfig.class);
 
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    @Value("${cache.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${cache.l1.ttl:PT5M}")
+    private Duration l1Ttl;
+
+    @Value("${cache.l2.retry-interval:PT5S}")
+    private Duration l2RetryInterval;
+
+    @Value("${cache.lease.enabled:false}")
+    private boolean leaseEnabled;
+
+    @Value("${cache.lease.ttl:PT5S}")
+    private Duration leaseTtl;
+
+    @Value("${cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${cache.l2.format:JSON}")
+    private CacheSerializationFormat l2Format;
+
+    @Value("${cache.l2.compression-threshold:1024}")
+    private int l2CompressionThreshold;
+
     @Bean
-    @Primary
-    public CacheManager cacheManager(Optional<RedisConnectionFactory> redisConnectionFactory) {
-        return redisConnectionFactory.map(factory -> {
-            try {
-                factory.getConnection().ping();
-                log.info("Redis is available. Using RedisCacheManager.");
-                RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()))
-                        .entryTtl(Duration.ofMinutes(30))
-                        .disableCachingNullValues();
-
-                return RedisCacheManager.builder(factory)
-                        .cacheDefaults(cacheConfig)
-                        .build();
-            } catch (Exception e) {
-                log.warn("Redis not available. Falling back to in-memory cache.", e);
-                return new ConcurrentMapCacheManager();
+    public TieredCacheManager cacheManager(Optional<RedisConnectionFactory> redisConnectionFactory,
+            Optional<StringRedisTemplate> redisTemplate,
+            Optional<RedisMessageListenerContainer> listenerContainer, Optional<MeterRegistry> meterRegistry) {
+        Map<String, Duration> ttls = new HashMap<>();
+
+        // 30 minutes for user data
+        ttls.put(CacheNames.USERS, Duration.ofMinutes(30));
+
+        // 5 minutes for user list pages; superseded pages are never read again once the generation moves
+        ttls.put(CacheNames.USER_PAGES, Duration.ofMinutes(5));
+
+        // 30 minutes for semester views; writes evict them
+        ttls.put(CacheNames.STUDENT_COURSES, Duration.ofMinutes(30));
+        ttls.put(CacheNames.TEACHER_CLASSES, Duration.ofMinutes(30));
+
+        // 1 hour for roles or metadata
+        ttls.put(CacheNames.ROLES, Duration.ofHours(1));
+
+        RedisCacheManager l2Manager = redisConnectionFactory
+                .map(factory -> redisCacheManager(factory, ttls))
+                .orElse(null);
+        if (l2Manager == null) {
+            log.warn("RedisConnectionFactory not configured. Using in-memory cache only.");
+        }
+
+        return TieredCacheManager.builder()
+                .l2Manager(l2Manager)
+                .redisTemplate(l2Manager != null ? redisTemplate.orElse(null) : null)
+                .listenerContainer(l2Manager != null ? listenerContainer.orElse(null) : null)
+                .ttls(ttls)
+                .defaultTtl(DEFAULT_TTL)
+                .l1MaxSize(l1MaxSize)
+                .l1Ttl(l1Ttl)
+                .l2RetryInterval(l2RetryInterval)
+                .leaseTtl(leaseEnabled ? leaseTtl : null)
+                .earlyRefreshBeta(earlyRefreshBeta)
+                .meterRegistry(meterRegistry.orElse(null))
+                .build();
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory factory, Map<String, Duration> ttls) {
+        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new GenericJackson2JsonRedisSerializer()))
+                .entryTtl(DEFAULT_TTL)
+                .disableCachingNullValues();
+
+        // Value types for caches that can use the compact format; others keep self-describing JSON
+        Map<String, Class<?>> valueTypes = Map.of(
+                CacheNames.USERS, UserResponse.class,
+                CacheNames.USER_PAGES, UserPage.class,
+                CacheNames.STUDENT_COURSES, StudentSemesterView.class,
+                CacheNames.TEACHER_CLASSES, TeacherSemesterView.class);
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        ttls.forEach((name, ttl) -> {
+            RedisCacheConfiguration config = defaultConfig.entryTtl(ttl);
+            Class<?> valueType = valueTypes.get(name);
+            // Typed caches read both formats either way; the setting only picks what is written
+            if (valueType != null) {
+                config = config.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new CompactCacheSerializer<>(valueType, l2CompressionThreshold,
+                                l2Format == CacheSerializationFormat.SMILE)));
             }
-        }).orElseGet(() -> {
-            log.warn("RedisConnectionFactory not configured. Using in-memory cache.");
-            return new ConcurrentMapCacheManager();
+            cacheConfigurations.put(name, config);
         });
+
+        return RedisCacheManager.builder(factory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,69 @@
 package com.example.mongoRedis.config;
 
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import io.micrometer.core.instrument.config.MeterFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import io.micrometer.core.instrument.binder.MeterBinder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tag and cardinality rules for the application's meters. Latency histograms are switched on per
+ * meter in application.properties, so Prometheus computes p99 from fixed buckets rather than
+ * each instance tracking client-side percentiles.
+ */
 @Configuration
 public class MetricsConfig {
 
+    private static final Set<String> MONGO_COMMAND_TAGS = Set.of("command", "collection", "status");
+
+    // Safety net: once a tag exceeds its budget, new values are dropped instead of creating series
+    private static final int MAX_COLLECTIONS = 50;
+    private static final int MAX_RATE_LIMIT_RULES = 50;
+
+    /**
+     * Boot's auto-configured MongoMetricsCommandListener records every command as
+     * mongodb.driver.commands. Only command, collection and status are kept: cluster.id is random
+     * per client, so every restart would start new series, and server.address adds a copy per host.
+     */
     @Bean
-    public MeterBinder customMetrics() {
-        return registry -> {
-            // Placeholder for custom metrics
-            // Example: Counter.builder("api.requests").register(registry);
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        DefaultMongoCommandTagsProvider delegate = new DefaultMongoCommandTagsProvider();
+        return new MongoCommandTagsProvider() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                delegate.commandStarted(event);
+            }
+
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                List<Tag> tags = new ArrayList<>(MONGO_COMMAND_TAGS.size());
+                for (Tag tag : delegate.commandTags(event)) {
+                    if (MONGO_COMMAND_TAGS.contains(tag.getKey())) {
+                        tags.add(tag);
+                    }
+                }
+                return Tags.of(tags);
+            }
         };
     }
+
+    @Bean
+    public MeterFilter mongoCollectionLimit() {
+        return MeterFilter.maximumAllowableTags("mongodb.driver.commands", "collection", MAX_COLLECTIONS,
+                MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter rateLimitRuleLimit() {
+        return MeterFilter.maximumAllowableTags("ratelimit.decisions", "rule", MAX_RATE_LIMIT_RULES,
+                MeterFilter.deny());
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.mongoRedis.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoConfig.class);
+
+    @Value("${mongo.pool.max-size:100}")
+    private int maxPoolSize;
+
+    @Value("${mongo.pool.min-size:0}")
+    private int minPoolSize;
+
+    @Value("${mongo.pool.max-wait:PT2M}")
+    private Duration maxWait;
+
+    @Value("${mongo.pool.max-connecting:2}")
+    private int maxConnecting;
+
+    @Value("${mongo.indexes.ensure-on-startup:true}")
+    private boolean ensureIndexes;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .minSize(minPoolSize)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnecting(maxConnecting));
+    }
+
+    // Creates the indexes declared on @Document classes (@Indexed, @CompoundIndex) once the app is up.
+    // Unlike spring.data.mongodb.auto-index-creation this never blocks or fails startup when Mongo is down.
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> indexInitializer(MongoTemplate mongoTemplate,
+            MongoMappingContext mappingContext) {
+        return event -> {
+            if (!ensureIndexes) {
+                return;
+            }
+            CompletableFuture.runAsync(() -> {
+                MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+                for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+                    if (!entity.isAnnotationPresent(Document.class)) {
+                        continue;
+                    }
+                    try {
+                        IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                        resolver.resolveIndexFor(entity.getType()).forEach(indexOps::createIndex);
+                    } catch (DataAccessException e) {
+                        log.warn("Could not ensure indexes for '{}': {}", entity.getCollection(), e.getMessage());
+                        if (e instanceof DataAccessResourceFailureException) {
+                            return; // Mongo unreachable, the rest would fail the same way
+                        }
+                    }
+                }
+            });
+        };
+    }
+}
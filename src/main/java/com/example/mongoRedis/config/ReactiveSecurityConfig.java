@@ -0,0 +1,72 @@
+package com.example.mongoRedis.config;
+
+import com.example.mongoRedis.common.util.PasswordEncoderUtil;
+import com.example.mongoRedis.filter.FilterMetrics;
+import com.example.mongoRedis.filter.ReactiveJwtAuthFilter;
+import com.example.mongoRedis.filter.ReactiveRateLimitFilter;
+import com.example.mongoRedis.jwt.JwtService;
+import com.example.mongoRedis.jwt.ReactiveRedisTokenService;
+import com.example.mongoRedis.ratelimit.RateLimitProperties;
+import com.example.mongoRedis.ratelimit.RateLimitScope;
+import com.example.mongoRedis.ratelimit.ReactiveRedisRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+// Mirrors SecurityConfig for the WebFlux stack (reactive profile)
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService,
+            ReactiveRedisTokenService redisTokenService, ReactiveRedisRateLimiter rateLimiter,
+            RateLimitProperties rateLimitProperties, ObjectMapper objectMapper, FilterMetrics filterMetrics) {
+        // Filters are created here rather than as beans so WebFlux does not also add them to the global chain
+        ReactiveJwtAuthFilter jwtAuthFilter = new ReactiveJwtAuthFilter(jwtService, redisTokenService, objectMapper,
+                filterMetrics);
+        ReactiveRateLimitFilter clientRateLimitFilter = new ReactiveRateLimitFilter(rateLimiter, rateLimitProperties,
+                objectMapper, filterMetrics, RateLimitScope.IP);
+        ReactiveRateLimitFilter principalRateLimitFilter = new ReactiveRateLimitFilter(rateLimiter,
+                rateLimitProperties, objectMapper, filterMetrics, RateLimitScope.PRINCIPAL);
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/auth/**").permitAll()
+                        .pathMatchers("/actuator/**").permitAll()
+                        .pathMatchers("/school/users/create").permitAll()
+                        .pathMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .pathMatchers("/swagger-resources/**", "/webjars/**").permitAll()
+
+                        // RBAC Rules
+                        .pathMatchers("/users/**").hasRole("ADMIN")
+                        .pathMatchers("/admin/**").hasRole("ADMIN")
+                        .pathMatchers("/teacher/**").hasAnyRole("ADMIN", "TEACHER")
+                        .pathMatchers("/student/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT")
+
+                        .anyExchange().authenticated())
+                // Per address before any token work, per principal once the user is known
+                .addFilterBefore(clientRateLimitFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(jwtAuthFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAfter(principalRateLimitFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // Same encoder the login path verifies with, so cost and algorithm are configured in one place
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordEncoderUtil passwordEncoderUtil) {
+        return passwordEncoderUtil.getEncoder();
+    }
+}
@@ -1,56 +1,114 @@
 package com.example.mongoRedis.config;
 
+import io.lettuce.core.api.StatefulConnection;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RedisConfig {
 
+        private static final Logger log = LoggerFactory.getLogger(RedisConfig.class);
+
+        private static final long LISTENER_START_RETRY_SECONDS = 5;
+
         @Value("${spring.data.redis.host:localhost}")
         private String redisHost;
 
         @Value("${spring.data.redis.port:6379}")
         private int redisPort;
 
+        @Value("${spring.data.redis.lettuce.pool.enabled:false}")
+        private boolean poolEnabled;
+
+        @Value("${spring.data.redis.lettuce.pool.max-active:8}")
+        private int poolMaxActive;
+
+        @Value("${spring.data.redis.lettuce.pool.max-idle:8}")
+        private int poolMaxIdle;
+
+        @Value("${spring.data.redis.lettuce.pool.min-idle:0}")
+        private int poolMinIdle;
+
+        @Value("${spring.data.redis.lettuce.pool.max-wait:-1ms}")
+        private Duration poolMaxWait;
+
         @Bean
         public LettuceConnectionFactory redisConnectionFactory() {
                 RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
                 redisConfig.setHostName(redisHost);
                 redisConfig.setPort(redisPort);
-                return new LettuceConnectionFactory(redisConfig);
+                if (!poolEnabled) {
+                        return new LettuceConnectionFactory(redisConfig);
+                }
+
+                // Pooled connections for blocking commands issued from many concurrent (virtual) threads
+                GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+                poolConfig.setMaxTotal(poolMaxActive);
+                poolConfig.setMaxIdle(poolMaxIdle);
+                poolConfig.setMinIdle(poolMinIdle);
+                poolConfig.setMaxWait(poolMaxWait);
+                LettuceClientConfiguration clientConfig = LettucePoolingClientConfiguration.builder()
+                                .poolConfig(poolConfig)
+                                .build();
+                LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfig, clientConfig);
+                factory.setShareNativeConnection(false);
+                return factory;
         }
 
+        // Shared pub/sub container for cross-instance invalidation channels
         @Bean
-        public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
-                RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                                .entryTtl(Duration.ofMinutes(10))
-                                .serializeValuesWith(
-                                                RedisSerializationContext.SerializationPair.fromSerializer(
-                                                                new GenericJackson2JsonRedisSerializer()));
-
-                java.util.Map<String, RedisCacheConfiguration> cacheConfigurations = new java.util.HashMap<>();
-
-                // 30 minutes for user data
-                cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-
-                // 1 hour for roles or metadata
-                cacheConfigurations.put("roles", defaultConfig.entryTtl(Duration.ofHours(1)));
+        public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+                        // Started from startListenerContainer so a Redis outage does not fail application startup
+                        @Override
+                        public boolean isAutoStartup() {
+                                return false;
+                        }
+                };
+                container.setConnectionFactory(connectionFactory);
+                return container;
+        }
 
-                return RedisCacheManager.builder(connectionFactory)
-                                .cacheDefaults(defaultConfig)
-                                .withInitialCacheConfigurations(cacheConfigurations)
-                                .build();
+        @EventListener(ApplicationReadyEvent.class)
+        public void startListenerContainer(ApplicationReadyEvent event) {
+                RedisMessageListenerContainer container = event.getApplicationContext()
+                                .getBean(RedisMessageListenerContainer.class);
+                ScheduledExecutorService starter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "redis-listener-starter");
+                        thread.setDaemon(true);
+                        return thread;
+                });
+                starter.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                                try {
+                                        container.start();
+                                        starter.shutdown();
+                                } catch (RuntimeException e) {
+                                        log.warn("Redis pub/sub unavailable, retrying in {}s: {}",
+                                                        LISTENER_START_RETRY_SECONDS, e.getMessage());
+                                        container.stop();
+                                        starter.schedule(this, LISTENER_START_RETRY_SECONDS, TimeUnit.SECONDS);
+                                }
+                        }
+                });
         }
 }
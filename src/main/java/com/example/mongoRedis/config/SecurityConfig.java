@@ -1,7 +1,15 @@
 package com.example.mongoRedis.config;
 
+import com.example.mongoRedis.common.util.PasswordEncoderUtil;
+import com.example.mongoRedis.filter.FilterMetrics;
 import com.example.mongoRedis.filter.JwtAuthFilter;
+import com.example.mongoRedis.filter.RateLimitFilter;
+import com.example.mongoRedis.ratelimit.RateLimitProperties;
+import com.example.mongoRedis.ratelimit.RateLimitScope;
+import com.example.mongoRedis.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,21 +17,29 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
-    private final com.example.mongoRedis.filter.RateLimitFilter rateLimitFilter;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+    private final FilterMetrics filterMetrics;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        RateLimitFilter clientRateLimitFilter = new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper,
+                filterMetrics, RateLimitScope.IP);
+        RateLimitFilter principalRateLimitFilter = new RateLimitFilter(rateLimiter, rateLimitProperties,
+                objectMapper, filterMetrics, RateLimitScope.PRINCIPAL);
+
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -36,19 +52,23 @@ public class SecurityConfig {
 
                         // RBAC Rules
                         .requestMatchers("/users/**").hasRole("ADMIN")
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/teacher/**").hasAnyRole("ADMIN", "TEACHER")
                         .requestMatchers("/student/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT")
 
                         .anyRequest().authenticated())
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Per address before any token work, per principal once the user is known
+                .addFilterBefore(clientRateLimitFilter, JwtAuthFilter.class)
+                .addFilterAfter(principalRateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
 
+    // Same encoder the login path verifies with, so cost and algorithm are configured in one place
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(PasswordEncoderUtil passwordEncoderUtil) {
+        return passwordEncoderUtil.getEncoder();
     }
 
     @Bean
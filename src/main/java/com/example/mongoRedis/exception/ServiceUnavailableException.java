@@ -0,0 +1,15 @@
+package com.example.mongoRedis.exception;
+
+import lombok.Getter;
+
+// Load shed before doing the work; mapped to 503 with a Retry-After hint
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
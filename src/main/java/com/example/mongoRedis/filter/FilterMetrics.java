@@ -0,0 +1,63 @@
+package com.example.mongoRedis.filter;
+
+import com.example.mongoRedis.ratelimit.RateLimitScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meters shared by the servlet and reactive JWT and rate-limit filters. Tag values come from
+ * fixed sets or the configured rule names, so the number of series stays bounded.
+ */
+@Component
+public class FilterMetrics {
+
+    public enum JwtRejection {
+        MISSING_HEADER, INVALID_TOKEN, REVOKED, ERROR
+    }
+
+    public enum RateLimitOutcome {
+        ALLOWED, DENIED, FAIL_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Timer jwtVerify;
+    private final Map<JwtRejection, Counter> jwtRejections = new EnumMap<>(JwtRejection.class);
+    private final Map<String, Counter> rateLimitDecisions = new ConcurrentHashMap<>();
+
+    public FilterMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.jwtVerify = Timer.builder("auth.jwt.verify")
+                .description("Signature check plus session lookup for a presented access token")
+                .register(meterRegistry);
+        for (JwtRejection reason : JwtRejection.values()) {
+            jwtRejections.put(reason, Counter.builder("auth.jwt.rejected")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public Timer jwtVerify() {
+        return jwtVerify;
+    }
+
+    public void jwtRejected(JwtRejection reason) {
+        jwtRejections.get(reason).increment();
+    }
+
+    // stage is the check that decided: per client address before authentication, or per principal after it
+    public void rateLimitDecision(String rule, RateLimitScope stage, RateLimitOutcome outcome) {
+        String key = rule + "|" + stage + "|" + outcome;
+        rateLimitDecisions.computeIfAbsent(key, ignored -> Counter.builder("ratelimit.decisions")
+                        .tag("rule", rule)
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.mongoRedis.filter;
 
 import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.filter.FilterMetrics.JwtRejection;
 import com.example.mongoRedis.jwt.JwtService;
 import com.example.mongoRedis.jwt.RedisTokenService;
+import com.example.mongoRedis.jwt.VerifiedClaims;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,16 +22,20 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final RedisTokenService redisTokenService;
     private final ObjectMapper objectMapper;
+    private final FilterMetrics metrics;
 
-    public JwtAuthFilter(JwtService jwtService, RedisTokenService redisTokenService, ObjectMapper objectMapper) {
+    public JwtAuthFilter(JwtService jwtService, RedisTokenService redisTokenService, ObjectMapper objectMapper,
+            FilterMetrics metrics) {
         this.jwtService = jwtService;
         this.redisTokenService = redisTokenService;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
     }
 
     @Override
@@ -45,23 +53,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            metrics.jwtRejected(JwtRejection.MISSING_HEADER);
             sendApiError(response, HttpServletResponse.SC_UNAUTHORIZED,
                     "Missing or invalid Authorization header");
             return;
         }
 
+        Timer.Sample sample = Timer.start();
         try {
             String token = authHeader.substring(7);
-            String userId = jwtService.extractUserId(token);
+            VerifiedClaims claims = jwtService.verify(token);
+            String userId = claims != null ? claims.getUserId() : null;
+            if (userId == null) {
+                metrics.jwtRejected(JwtRejection.INVALID_TOKEN);
+                sendApiError(response, HttpServletResponse.SC_UNAUTHORIZED, "Token is invalid or has expired");
+                return;
+            }
 
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (!redisTokenService.isAccessTokenValid(userId, token)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (!redisTokenService.isAccessTokenValid(userId, claims.getSessionId(), token)) {
+                    metrics.jwtRejected(JwtRejection.REVOKED);
                     sendApiError(response, HttpServletResponse.SC_UNAUTHORIZED,
                             "Token is not valid or has been revoked");
                     return;
                 }
 
-                String role = jwtService.extractUserType(token);
+                String role = claims.getRole();
                 java.util.List<org.springframework.security.core.GrantedAuthority> authorities = java.util.Collections
                         .singletonList(
                                 new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_" + role));
@@ -73,9 +90,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
 
         } catch (Exception e) {
+            metrics.jwtRejected(JwtRejection.ERROR);
             sendApiError(response, HttpServletResponse.SC_UNAUTHORIZED,
                     "Authentication failed: " + e.getMessage());
             return;
+        } finally {
+            sample.stop(metrics.jwtVerify());
         }
 
         filterChain.doFilter(request, response);
@@ -1,44 +1,107 @@
 package com.example.mongoRedis.filter;
 
 import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.filter.FilterMetrics.RateLimitOutcome;
+import com.example.mongoRedis.ratelimit.RateLimitDecision;
+import com.example.mongoRedis.ratelimit.RateLimitProperties;
+import com.example.mongoRedis.ratelimit.RateLimitRule;
+import com.example.mongoRedis.ratelimit.RateLimitScope;
+import com.example.mongoRedis.ratelimit.RateLimiter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.MediaType;
-import org.springframework.stereotype.Component;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
-@Component
-@RequiredArgsConstructor
+/**
+ * Runs twice in the security chain: with {@link RateLimitScope#IP} before authentication, so
+ * floods of missing, guessed or revoked tokens are throttled per client address before any
+ * token work, and with {@link RateLimitScope#PRINCIPAL} after it, for the per-user budget of
+ * rules scoped to principals. Created in SecurityConfig rather than as a bean, so the servlet
+ * container does not also register it globally.
+ */
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final StringRedisTemplate redisTemplate;
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
     private final ObjectMapper objectMapper;
+    private final FilterMetrics metrics;
+    private final RateLimitScope stage;
 
-    private static final int MAX_REQUESTS_PER_MINUTE = 60;
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper,
+            FilterMetrics metrics, RateLimitScope stage) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.stage = stage;
+    }
+
+    // Both stages are instances of this class; without distinct names the second would be skipped
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return RateLimitFilter.class.getName() + "." + stage + ".FILTERED";
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
-        String ip = request.getRemoteAddr();
-        String key = "ratelimit:" + ip;
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimitRule rule = properties.resolve(path);
 
-        Long count = redisTemplate.opsForValue().increment(key);
+        String key;
+        if (stage == RateLimitScope.IP) {
+            rule = rule.forClient();
+            key = "ip:" + request.getRemoteAddr();
+        } else {
+            String principal = currentPrincipal();
+            if (rule.getScope() != RateLimitScope.PRINCIPAL || principal == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (rule.getPrincipalLimits().containsKey(principal)) {
+                rule = rule.withLimit(rule.getPrincipalLimits().get(principal));
+            }
+            key = "user:" + principal;
+        }
 
-        if (count != null && count == 1) {
-            redisTemplate.expire(key, 1, TimeUnit.MINUTES);
+        RateLimitDecision decision;
+        try {
+            decision = rateLimiter.tryAcquire(key, rule);
+        } catch (DataAccessException e) {
+            // Fail open: an unavailable Redis must not take the API down with it
+            log.warn("Rate limit check failed for {}, allowing request: {}", key, e.getMessage());
+            metrics.rateLimitDecision(rule.getName(), stage, RateLimitOutcome.FAIL_OPEN);
+            filterChain.doFilter(request, response);
+            return;
         }
 
-        if (count != null && count > MAX_REQUESTS_PER_MINUTE) {
+        metrics.rateLimitDecision(rule.getName(), stage,
+                decision.isAllowed() ? RateLimitOutcome.ALLOWED : RateLimitOutcome.DENIED);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rule.getLimit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+
+        if (!decision.isAllowed()) {
+            response.setHeader("Retry-After", String.valueOf((decision.getRetryAfterMillis() + 999) / 1000));
             sendApiError(response, 429, "Too many requests. Please try again later.");
             return;
         }
@@ -46,6 +109,15 @@ public class RateLimitFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
     private void sendApiError(HttpServletResponse response, int status, String message) throws IOException {
         response.setStatus(status);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
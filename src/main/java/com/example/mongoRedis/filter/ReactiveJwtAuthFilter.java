@@ -0,0 +1,104 @@
+package com.example.mongoRedis.filter;
+
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.filter.FilterMetrics.JwtRejection;
+import com.example.mongoRedis.jwt.JwtService;
+import com.example.mongoRedis.jwt.ReactiveRedisTokenService;
+import com.example.mongoRedis.jwt.VerifiedClaims;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// WebFlux counterpart of JwtAuthFilter; registered only inside the reactive security chain
+public class ReactiveJwtAuthFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveRedisTokenService redisTokenService;
+    private final ObjectMapper objectMapper;
+    private final FilterMetrics metrics;
+
+    public ReactiveJwtAuthFilter(JwtService jwtService, ReactiveRedisTokenService redisTokenService,
+            ObjectMapper objectMapper, FilterMetrics metrics) {
+        this.jwtService = jwtService;
+        this.redisTokenService = redisTokenService;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getURI().getPath();
+
+        // Skip JWT for auth endpoints and Swagger UI / OpenAPI
+        if (isWhitelisted(path)) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            metrics.jwtRejected(JwtRejection.MISSING_HEADER);
+            return sendApiError(exchange, HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header");
+        }
+
+        String token = authHeader.substring(7);
+        Timer.Sample sample = Timer.start();
+        VerifiedClaims claims = jwtService.verify(token);
+        if (claims == null || claims.getUserId() == null) {
+            sample.stop(metrics.jwtVerify());
+            metrics.jwtRejected(JwtRejection.INVALID_TOKEN);
+            return sendApiError(exchange, HttpStatus.UNAUTHORIZED, "Token is invalid or has expired");
+        }
+
+        return redisTokenService.isAccessTokenValid(claims.getUserId(), claims.getSessionId(), token)
+                .doFinally(signal -> sample.stop(metrics.jwtVerify()))
+                .onErrorResume(e -> {
+                    metrics.jwtRejected(JwtRejection.ERROR);
+                    return sendApiError(exchange, HttpStatus.UNAUTHORIZED,
+                            "Authentication failed: " + e.getMessage()).then(Mono.empty());
+                })
+                .flatMap(valid -> {
+                    if (!valid) {
+                        metrics.jwtRejected(JwtRejection.REVOKED);
+                        return sendApiError(exchange, HttpStatus.UNAUTHORIZED,
+                                "Token is not valid or has been revoked");
+                    }
+
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            claims.getUserId(), null, List.of(new SimpleGrantedAuthority("ROLE_" + claims.getRole())));
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+                });
+    }
+
+    // Only check if the path contains keywords for whitelisted endpoints
+    private boolean isWhitelisted(String path) {
+        return path.contains("/auth/") || path.contains("school/users/create") || path.contains("/swagger")
+                || path.contains("/v3/api-docs") || path.contains("/webjars") || path.contains("/actuator");
+    }
+
+    private Mono<Void> sendApiError(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new ApiResponse<Void>(false, null, message));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
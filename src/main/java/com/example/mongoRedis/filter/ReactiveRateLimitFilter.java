@@ -0,0 +1,131 @@
+package com.example.mongoRedis.filter;
+
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.filter.FilterMetrics.RateLimitOutcome;
+import com.example.mongoRedis.ratelimit.RateLimitDecision;
+import com.example.mongoRedis.ratelimit.RateLimitProperties;
+import com.example.mongoRedis.ratelimit.RateLimitRule;
+import com.example.mongoRedis.ratelimit.RateLimitScope;
+import com.example.mongoRedis.ratelimit.ReactiveRedisRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+// WebFlux counterpart of RateLimitFilter, also run once per stage; registered only inside the reactive security chain
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRateLimitFilter.class);
+
+    private final ReactiveRedisRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final FilterMetrics metrics;
+    private final RateLimitScope stage;
+
+    public ReactiveRateLimitFilter(ReactiveRedisRateLimiter rateLimiter, RateLimitProperties properties,
+            ObjectMapper objectMapper, FilterMetrics metrics, RateLimitScope stage) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.stage = stage;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        RateLimitRule resolved = properties.resolve(path);
+
+        if (stage == RateLimitScope.IP) {
+            return check(exchange, chain, "ip:" + remoteAddress(exchange), resolved.forClient());
+        }
+        if (resolved.getScope() != RateLimitScope.PRINCIPAL) {
+            return chain.filter(exchange);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(auth -> auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken))
+                .map(Authentication::getName)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(principal -> {
+                    if (principal.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    RateLimitRule rule = Optional.ofNullable(resolved.getPrincipalLimits().get(principal.get()))
+                            .map(resolved::withLimit)
+                            .orElse(resolved);
+                    return check(exchange, chain, "user:" + principal.get(), rule);
+                });
+    }
+
+    private Mono<Void> check(ServerWebExchange exchange, WebFilterChain chain, String key, RateLimitRule rule) {
+        return rateLimiter.tryAcquire(key, rule)
+                .map(Optional::of)
+                .onErrorResume(DataAccessException.class, e -> {
+                    // Fail open: an unavailable Redis must not take the API down with it
+                    log.warn("Rate limit check failed for {}, allowing request: {}", key, e.getMessage());
+                    metrics.rateLimitDecision(rule.getName(), stage, RateLimitOutcome.FAIL_OPEN);
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(decision -> decision.isPresent()
+                        ? apply(exchange, chain, rule, decision.get())
+                        : chain.filter(exchange));
+    }
+
+    private Mono<Void> apply(ServerWebExchange exchange, WebFilterChain chain, RateLimitRule rule,
+            RateLimitDecision decision) {
+        metrics.rateLimitDecision(rule.getName(), stage,
+                decision.isAllowed() ? RateLimitOutcome.ALLOWED : RateLimitOutcome.DENIED);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(rule.getLimit()));
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+
+        if (!decision.isAllowed()) {
+            response.getHeaders().set("Retry-After", String.valueOf((decision.getRetryAfterMillis() + 999) / 1000));
+            return sendApiError(exchange, HttpStatus.TOO_MANY_REQUESTS, "Too many requests. Please try again later.");
+        }
+        return chain.filter(exchange);
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address != null && address.getAddress() != null
+                ? address.getAddress().getHostAddress()
+                : "unknown";
+    }
+
+    private Mono<Void> sendApiError(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new ApiResponse<Void>(false, null, message));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
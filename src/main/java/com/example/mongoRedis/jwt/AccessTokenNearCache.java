@@ -0,0 +1,129 @@
+package com.example.mongoRedis.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-process copy of each user's session records, keyed by user and then session id,
+ * kept coherent across instances by publishing an invalidation on the {@value #CHANNEL} channel
+ * whenever one of the user's sessions is stored, rotated or deleted.
+ */
+@Component
+public class AccessTokenNearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenNearCache.class);
+
+    static final String CHANNEL = "token:invalidate";
+
+    @Value("${jwt.near-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jwt.near-cache.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${jwt.near-cache.max-size:50000}")
+    private long maxSize;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Bumped on every invalidation so a load racing with one is never cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Cache<String, Map<String, String>> sessions;
+    private Timer invalidationLag;
+
+    public AccessTokenNearCache(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "accessTokenNearCache");
+        invalidationLag = Timer.builder("jwt.near_cache.invalidation.lag")
+                .description("Time between a token invalidation being published and applied on this instance")
+                .register(meterRegistry);
+        listenerContainer.addMessageListener((message, pattern) -> onInvalidation(message), new ChannelTopic(CHANNEL));
+        log.info("Access token near-cache enabled (ttl={}, maxSize={})", ttl, maxSize);
+    }
+
+    public String get(String userId, String sessionId) {
+        if (!enabled) {
+            return null;
+        }
+        Map<String, String> userSessions = sessions.getIfPresent(userId);
+        return userSessions != null ? userSessions.get(sessionId) : null;
+    }
+
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    // Only caches the value if no invalidation happened since the stamp was taken
+    public void put(String userId, String sessionId, String record, long stamp) {
+        if (!enabled) {
+            return;
+        }
+        sessions.asMap().computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(sessionId, record);
+        if (invalidations.get() != stamp) {
+            sessions.invalidate(userId);
+        }
+    }
+
+    public void invalidate(String userId) {
+        if (!enabled) {
+            return;
+        }
+        invalidateLocally(userId);
+        redisTemplate.convertAndSend(CHANNEL, instanceId + "|" + System.currentTimeMillis() + "|" + userId);
+    }
+
+    private void onInvalidation(Message message) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        invalidateLocally(parts[2]);
+        long lag = System.currentTimeMillis() - Long.parseLong(parts[1]);
+        invalidationLag.record(Math.max(lag, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private void invalidateLocally(String userId) {
+        invalidations.incrementAndGet();
+        sessions.invalidate(userId);
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.mongoRedis.jwt;
 
 import com.example.mongoRedis.user.dto.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 @Service
@@ -22,64 +35,137 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiry:604800000}") // 7 days in ms
     private long refreshTokenExpiry;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.max-ttl:PT15M}")
+    private Duration claimsCacheMaxTtl;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by SHA-256 of the token, so raw tokens are never retained
+    private Cache<String, VerifiedClaims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
+
+    // Identifies one login (device); carried by both tokens and kept across refreshes
+    public String newSessionId() {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
     }
 
-    public String generateToken(User user) {
+    public String generateToken(User user, String sessionId) {
         return Jwts.builder()
                 .subject(user.getId())
                 .claim("role", user.getUserType().name())
+                .claim("sid", sessionId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpiry))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String generateRefreshToken(User user) {
+    public String generateRefreshToken(User user, String sessionId) {
         return Jwts.builder()
                 .subject(user.getId())
+                .claim("sid", sessionId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiry))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String extractUserId(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (JwtException e) {
+    /**
+     * Parses and verifies the token once, serving repeat lookups from the claims cache.
+     * Returns null when the token is malformed, forged or expired.
+     */
+    public VerifiedClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
-    }
 
-    public String extractUserType(String token) {
+        String digest = digest(token);
+        VerifiedClaims cached = claimsCache.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .get("role", String.class);
-        } catch (JwtException e) {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            VerifiedClaims verified = new VerifiedClaims(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("sid", String.class),
+                    expiration != null ? expiration.toInstant() : null);
+
+            // Tokens without an expiry are still accepted, but never cached
+            if (expiration != null) {
+                claimsCache.put(digest, verified);
+            }
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
             return null;
         }
     }
 
+    public String extractUserId(String token) {
+        VerifiedClaims claims = verify(token);
+        return claims != null ? claims.getUserId() : null;
+    }
+
+    public String extractUserType(String token) {
+        VerifiedClaims claims = verify(token);
+        return claims != null ? claims.getRole() : null;
+    }
+
     public boolean isTokenValid(String token) {
+        return verify(token) != null;
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Entries live until the token expires, capped at jwt.claims-cache.max-ttl
+    private class ClaimsExpiry implements Expiry<String, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedClaims value, long currentTime) {
+            Duration untilExpiry = Duration.between(Instant.now(), value.getExpiresAt());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return Math.min(untilExpiry.toNanos(), claimsCacheMaxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.example.mongoRedis.jwt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.example.mongoRedis.jwt.RedisTokenService.ROTATE_SESSION;
+import static com.example.mongoRedis.jwt.RedisTokenService.STORE_SESSION;
+import static com.example.mongoRedis.jwt.RedisTokenService.key;
+import static com.example.mongoRedis.jwt.RedisTokenService.record;
+import static com.example.mongoRedis.jwt.RedisTokenService.timer;
+
+// Non-blocking counterpart of RedisTokenService; uses the same hash and scripts so both stacks share sessions,
+// and invalidates the same access token near-cache after every write so neither stack serves a stale record
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisTokenService {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final AccessTokenNearCache accessTokenNearCache;
+    private final Timer storeTimer;
+    private final Timer rotateTimer;
+    private final Timer validateTimer;
+    private final Timer deleteTimer;
+
+    @Value("${jwt.sessions.max-per-user:10}")
+    private int maxSessionsPerUser;
+
+    @Value("${jwt.access-token-expiry:900000}")
+    private long accessTokenExpiry;
+
+    @Value("${jwt.refresh-token-expiry:604800000}")
+    private long refreshTokenExpiry;
+
+    public ReactiveRedisTokenService(ReactiveStringRedisTemplate redisTemplate,
+            AccessTokenNearCache accessTokenNearCache, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.accessTokenNearCache = accessTokenNearCache;
+        this.storeTimer = timer(meterRegistry, "store");
+        this.rotateTimer = timer(meterRegistry, "rotate");
+        this.validateTimer = timer(meterRegistry, "validate");
+        this.deleteTimer = timer(meterRegistry, "delete");
+    }
+
+    public Mono<Void> storeSession(String userId, String sessionId, String accessToken, String refreshToken) {
+        Instant now = Instant.now();
+        return timed(storeTimer, redisTemplate.execute(STORE_SESSION, List.of(key(userId)), List.of(
+                        sessionId, record(now, accessToken, accessTokenExpiry, refreshToken, refreshTokenExpiry),
+                        String.valueOf(now.getEpochSecond()), String.valueOf(refreshTokenExpiry),
+                        String.valueOf(maxSessionsPerUser)))
+                .then())
+                .then(invalidate(userId));
+    }
+
+    public Mono<Boolean> rotateSession(String userId, String sessionId, String presentedRefreshToken,
+            String accessToken, String refreshToken) {
+        Instant now = Instant.now();
+        return timed(rotateTimer, redisTemplate.<String, String>opsForHash().get(key(userId), sessionId))
+                .filter(current -> SessionRecord.matchesRefresh(current, presentedRefreshToken, now))
+                .flatMap(current -> timed(rotateTimer, redisTemplate.execute(ROTATE_SESSION, List.of(key(userId)),
+                                List.of(sessionId, current,
+                                        record(now, accessToken, accessTokenExpiry, refreshToken, refreshTokenExpiry),
+                                        String.valueOf(refreshTokenExpiry)))
+                        .next()))
+                .filter(rotated -> rotated == 1L)
+                .flatMap(rotated -> invalidate(userId).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Boolean> isAccessTokenValid(String userId, String sessionId, String accessToken) {
+        if (sessionId == null) {
+            return Mono.just(false);
+        }
+        return timed(validateTimer, redisTemplate.<String, String>opsForHash().get(key(userId), sessionId))
+                .map(record -> SessionRecord.matchesAccess(record, accessToken, Instant.now()))
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Long> deleteSession(String userId, String sessionId) {
+        return timed(deleteTimer, redisTemplate.opsForHash().remove(key(userId), sessionId))
+                .flatMap(removed -> invalidate(userId).thenReturn(removed));
+    }
+
+    public Mono<Long> deleteAllSessions(String userId) {
+        return timed(deleteTimer, redisTemplate.delete(key(userId)))
+                .flatMap(removed -> invalidate(userId).thenReturn(removed));
+    }
+
+    // The near-cache publishes with the blocking template, so keep it off the event loop
+    private Mono<Void> invalidate(String userId) {
+        return Mono.fromRunnable(() -> accessTokenNearCache.invalidate(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private static <T> Mono<T> timed(Timer timer, Mono<T> operation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return operation.doFinally(signal -> sample.stop(timer));
+        });
+    }
+}
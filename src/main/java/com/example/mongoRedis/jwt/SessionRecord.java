@@ -0,0 +1,67 @@
+package com.example.mongoRedis.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Value of one session field in {@code session:<userId>}:
+ * {@code <accessDigest>:<accessExpiry>:<refreshDigest>:<refreshExpiry>}, digests being the first
+ * 128 bits of SHA-256 in base64url (22 chars) and expiries epoch seconds in base 36 (6 chars).
+ * At 59 bytes it stays under Redis' default 64 byte limit for listpack-encoded hash values.
+ */
+final class SessionRecord {
+
+    private static final int DIGEST_BYTES = 16;
+
+    private SessionRecord() {
+    }
+
+    static String encode(String accessToken, Instant accessExpiry, String refreshToken, Instant refreshExpiry) {
+        return digest(accessToken) + ":" + Long.toString(accessExpiry.getEpochSecond(), 36) + ":"
+                + digest(refreshToken) + ":" + Long.toString(refreshExpiry.getEpochSecond(), 36);
+    }
+
+    // Constant-time over the digest; an expired or malformed record never matches
+    static boolean matchesAccess(String record, String accessToken, Instant now) {
+        return matches(record, 0, accessToken, now);
+    }
+
+    static boolean matchesRefresh(String record, String refreshToken, Instant now) {
+        return matches(record, 2, refreshToken, now);
+    }
+
+    private static boolean matches(String record, int digestPart, String token, Instant now) {
+        if (record == null || token == null) {
+            return false;
+        }
+        String[] parts = record.split(":");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            if (Long.parseLong(parts[digestPart + 1], 36) <= now.getEpochSecond()) {
+                return false;
+            }
+            return MessageDigest.isEqual(Base64.getUrlDecoder().decode(parts[digestPart]), hash(token));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static String digest(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash(token));
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(hash, DIGEST_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.mongoRedis.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Claims of a token whose signature and expiry have already been checked
+@Getter
+@AllArgsConstructor
+public class VerifiedClaims {
+    private final String userId;
+    private final String role;
+    private final String sessionId;
+    private final Instant expiresAt;
+}
@@ -0,0 +1,266 @@
+package com.example.mongoRedis.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits requests from a per-key local budget and reconciles consumed permits with Redis in
+ * one pipelined batch every {@code ratelimit.hybrid.sync-interval}. Each instance may admit at
+ * most {@code limit * max-error} permits per key between syncs; past that it checks Redis
+ * inline. With at most one push per key in flight, other instances can miss at most twice that
+ * budget from each instance, which bounds the cluster-wide overshoot.
+ * Only fixed windows are approximated; other algorithms are delegated to {@link RedisRateLimiter}.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "ratelimit", name = "mode", havingValue = "HYBRID")
+public class HybridRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:hybrid:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisRateLimiter redisRateLimiter;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final RedisScript<List> fixedWindow = RedisRateLimiter.script("fixed_window.lua");
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> driftByRule = new ConcurrentHashMap<>();
+
+    private volatile boolean scriptLoaded;
+    private ScheduledExecutorService syncExecutor;
+    private Counter inlineSyncs;
+    private Counter syncFailures;
+    private Timer syncTimer;
+
+    public HybridRateLimiter(StringRedisTemplate redisTemplate, RedisRateLimiter redisRateLimiter,
+            RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisRateLimiter = redisRateLimiter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        inlineSyncs = Counter.builder("ratelimit.hybrid.sync.inline")
+                .description("Checks that exhausted the local budget and went to Redis inline")
+                .register(meterRegistry);
+        syncFailures = Counter.builder("ratelimit.hybrid.sync.failures")
+                .register(meterRegistry);
+        syncTimer = RedisRateLimiter.redisTimer(meterRegistry, "sync");
+        meterRegistry.gauge("ratelimit.hybrid.keys", buckets, Map::size);
+
+        long interval = properties.getHybrid().getSyncInterval().toMillis();
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratelimit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(this::syncAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        syncExecutor.shutdown();
+        syncAll();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        if (rule.getAlgorithm() != RateLimitAlgorithm.FIXED_WINDOW) {
+            return redisRateLimiter.tryAcquire(key, rule);
+        }
+
+        long now = System.currentTimeMillis();
+        LocalBucket bucket = bucketFor(rule.getName() + ":" + key, rule, now);
+        bucket.lastAccess = now;
+
+        while (true) {
+            // Read in this order: push moves permits pending -> inFlight -> global and never drops them in between
+            long pending = bucket.pending.get();
+            long used = pending + bucket.inFlight.get() + bucket.global.get();
+            if (used >= bucket.limit) {
+                return new RateLimitDecision(false, 0, bucket.windowEnd - now);
+            }
+            if (pending >= bucket.localBudget) {
+                if (!syncInline(bucket)) {
+                    // Redis unreachable: fail open, the permits are pushed once it is back
+                    bucket.pending.incrementAndGet();
+                    return RateLimitDecision.allow(0);
+                }
+                continue;
+            }
+            if (bucket.pending.compareAndSet(pending, pending + 1)) {
+                return RateLimitDecision.allow(bucket.limit - used - 1);
+            }
+        }
+    }
+
+    private LocalBucket bucketFor(String id, RateLimitRule rule, long now) {
+        long windowMillis = rule.getWindow().toMillis();
+        long windowId = now / windowMillis;
+
+        LocalBucket bucket = buckets.get(id);
+        if (bucket != null && bucket.windowId == windowId && bucket.limit == rule.getLimit()) {
+            return bucket;
+        }
+        return buckets.compute(id, (k, current) -> current != null && current.windowId == windowId
+                && current.limit == rule.getLimit()
+                        ? current
+                        : new LocalBucket(KEY_PREFIX + id + ":" + windowId, rule, windowId, windowMillis,
+                                properties.getHybrid().getMaxError()));
+    }
+
+    // Slow path: the local budget is spent, so push it and refresh the global count now
+    private boolean syncInline(LocalBucket bucket) {
+        // A lock rather than synchronized, so a virtual thread waiting on Redis does not pin its carrier
+        bucket.syncLock.lock();
+        try {
+            if (bucket.pending.get() < bucket.localBudget) {
+                return true;
+            }
+            inlineSyncs.increment();
+            return push(List.of(bucket));
+        } finally {
+            bucket.syncLock.unlock();
+        }
+    }
+
+    private void syncAll() {
+        long now = System.currentTimeMillis();
+        buckets.values().removeIf(bucket -> bucket.windowEnd <= now);
+
+        // Buckets with an inline push running are skipped; they are picked up by the next sync
+        List<LocalBucket> active = new ArrayList<>();
+        for (LocalBucket bucket : buckets.values()) {
+            if ((bucket.pending.get() > 0 || now - bucket.lastAccess < bucket.windowMillis)
+                    && bucket.syncLock.tryLock()) {
+                active.add(bucket);
+            }
+        }
+        try {
+            if (!active.isEmpty()) {
+                push(active);
+            }
+        } finally {
+            active.forEach(bucket -> bucket.syncLock.unlock());
+        }
+    }
+
+    private boolean push(List<LocalBucket> batch) {
+        long[] drained = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            // Added to inFlight before leaving pending, so tryAcquire still counts them during the round trip
+            LocalBucket bucket = batch.get(i);
+            drained[i] = bucket.pending.get();
+            bucket.inFlight.addAndGet(drained[i]);
+            bucket.pending.addAndGet(-drained[i]);
+        }
+
+        try {
+            List<Object> results = syncTimer.record(() -> runPipeline(batch, drained));
+            for (int i = 0; i < batch.size(); i++) {
+                LocalBucket bucket = batch.get(i);
+                long count = ((Number) ((List<?>) results.get(i)).get(3)).longValue();
+                long expected = bucket.global.get() + drained[i];
+                drift(bucket.ruleName).record(Math.abs(count - expected));
+                // A concurrent push may already have installed a later, higher count
+                bucket.global.accumulateAndGet(count, Math::max);
+                bucket.inFlight.addAndGet(-drained[i]);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            scriptLoaded = false;  // a restarted Redis has lost its script cache
+            syncFailures.increment();
+            log.warn("Rate limit sync of {} keys failed: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                LocalBucket bucket = batch.get(i);
+                bucket.pending.addAndGet(drained[i]);
+                bucket.inFlight.addAndGet(-drained[i]);
+            }
+            return false;
+        }
+    }
+
+    private List<Object> runPipeline(List<LocalBucket> batch, long[] drained) {
+        // Pipelined EVALSHA cannot fall back to EVAL, so load the script up front
+        if (!scriptLoaded) {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                    .scriptLoad(fixedWindow.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            scriptLoaded = true;
+        }
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < batch.size(); i++) {
+                LocalBucket bucket = batch.get(i);
+                connection.scriptingCommands().evalSha(fixedWindow.getSha1(), ReturnType.MULTI, 1,
+                        bytes(bucket.redisKey), bytes(bucket.limit), bytes(bucket.windowMillis), bytes(drained[i]));
+            }
+            return null;
+        });
+    }
+
+    private DistributionSummary drift(String ruleName) {
+        return driftByRule.computeIfAbsent(ruleName, name -> DistributionSummary.builder("ratelimit.hybrid.drift")
+                .description("Permits consumed elsewhere in the cluster that this instance had not seen at sync time")
+                .tag("rule", name)
+                .register(meterRegistry));
+    }
+
+    private static byte[] bytes(Object value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class LocalBucket {
+        final String redisKey;
+        final String ruleName;
+        final long windowId;
+        final long windowMillis;
+        final long windowEnd;
+        final long limit;
+        final long localBudget;
+
+        final ReentrantLock syncLock = new ReentrantLock();
+        final AtomicLong pending = new AtomicLong();   // admitted here, not yet pushed to Redis
+        final AtomicLong inFlight = new AtomicLong();  // being pushed, not yet reflected in global
+        final AtomicLong global = new AtomicLong();    // highest cluster-wide count seen at a sync
+        volatile long lastAccess;
+
+        LocalBucket(String redisKey, RateLimitRule rule, long windowId, long windowMillis, double maxError) {
+            this.redisKey = redisKey;
+            this.ruleName = rule.getName();
+            this.windowId = windowId;
+            this.windowMillis = windowMillis;
+            this.windowEnd = (windowId + 1) * windowMillis;
+            this.limit = rule.getLimit();
+            this.localBudget = Math.max(1, (long) Math.floor(rule.getLimit() * maxError));
+        }
+    }
+}
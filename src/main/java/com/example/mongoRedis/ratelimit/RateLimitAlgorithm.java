@@ -0,0 +1,5 @@
+package com.example.mongoRedis.ratelimit;
+
+public enum RateLimitAlgorithm {
+    FIXED_WINDOW, SLIDING_LOG, TOKEN_BUCKET
+}
@@ -0,0 +1,16 @@
+package com.example.mongoRedis.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+    private final boolean allowed;
+    private final long remaining;
+    private final long retryAfterMillis;
+
+    public static RateLimitDecision allow(long remaining) {
+        return new RateLimitDecision(true, remaining, 0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mongoRedis.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private boolean enabled = true;
+
+    // REDIS checks every request against Redis; HYBRID admits locally and syncs in batches
+    private Mode mode = Mode.REDIS;
+
+    private Hybrid hybrid = new Hybrid();
+
+    private RateLimitRule defaultRule = new RateLimitRule();
+
+    // Checked in order; the first matching pattern wins
+    private List<RateLimitRule> routes = new ArrayList<>();
+
+    public RateLimitRule resolve(String path) {
+        for (RateLimitRule rule : routes) {
+            if (PATH_MATCHER.match(rule.getPattern(), path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    public enum Mode {
+        REDIS, HYBRID
+    }
+
+    @Data
+    public static class Hybrid {
+        private Duration syncInterval = Duration.ofMillis(75);
+
+        // Fraction of a rule's limit each instance may admit between syncs before checking Redis inline
+        private double maxError = 0.1;
+    }
+}
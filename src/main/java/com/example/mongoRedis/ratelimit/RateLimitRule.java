@@ -0,0 +1,34 @@
+package com.example.mongoRedis.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.With;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitRule {
+    private String name = "default";
+    private String pattern = "/**";  // Ant-style, relative to the context path
+
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.FIXED_WINDOW;
+    private RateLimitScope scope = RateLimitScope.IP;
+
+    @With
+    private long limit = 60;
+    private Duration window = Duration.ofMinutes(1);
+
+    private Map<String, Long> principalLimits = new HashMap<>();  // per-principal overrides of limit
+
+    // Budget per client address, checked before authentication; defaults to limit
+    private Long ipLimit;
+
+    public RateLimitRule forClient() {
+        return ipLimit != null ? withLimit(ipLimit) : this;
+    }
+}
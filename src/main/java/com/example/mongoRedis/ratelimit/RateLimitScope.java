@@ -0,0 +1,6 @@
+package com.example.mongoRedis.ratelimit;
+
+public enum RateLimitScope {
+    IP,        // one budget per client address
+    PRINCIPAL  // one budget per authenticated user on top of the per-address budget every request is checked against
+}
@@ -0,0 +1,7 @@
+package com.example.mongoRedis.ratelimit;
+
+public interface RateLimiter {
+
+    // Consumes one permit for the key under the given rule
+    RateLimitDecision tryAcquire(String key, RateLimitRule rule);
+}
@@ -0,0 +1,62 @@
+package com.example.mongoRedis.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Same scripts and keys as RedisRateLimiter, executed through the non-blocking Lettuce API
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisRateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Timer redisTimer;
+    private final Map<RateLimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(RateLimitAlgorithm.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ReactiveRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisTimer = RedisRateLimiter.redisTimer(meterRegistry, "check");
+        scripts.put(RateLimitAlgorithm.FIXED_WINDOW, RedisRateLimiter.script("fixed_window.lua"));
+        scripts.put(RateLimitAlgorithm.SLIDING_LOG, RedisRateLimiter.script("sliding_log.lua"));
+        scripts.put(RateLimitAlgorithm.TOKEN_BUCKET, RedisRateLimiter.script("token_bucket.lua"));
+    }
+
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimitRule rule) {
+        String redisKey = KEY_PREFIX + rule.getName() + ":" + key;
+        String third = rule.getAlgorithm() == RateLimitAlgorithm.SLIDING_LOG
+                ? instanceId + ":" + sequence.incrementAndGet()
+                : "1";
+
+        Timer.Sample sample = Timer.start();
+        return redisTemplate.execute(scripts.get(rule.getAlgorithm()), List.of(redisKey),
+                        List.of(String.valueOf(rule.getLimit()), String.valueOf(rule.getWindow().toMillis()), third))
+                .collectList()
+                .doFinally(signal -> sample.stop(redisTimer))
+                .map(result -> {
+                    // Lettuce streams multi-bulk replies element by element
+                    List<?> values = result.size() == 1 && result.get(0) instanceof List<?> nested ? nested : result;
+                    if (values.size() < 3) {
+                        return RateLimitDecision.allow(rule.getLimit());
+                    }
+                    return new RateLimitDecision(
+                            ((Number) values.get(0)).longValue() == 1,
+                            ((Number) values.get(1)).longValue(),
+                            ((Number) values.get(2)).longValue());
+                });
+    }
+}
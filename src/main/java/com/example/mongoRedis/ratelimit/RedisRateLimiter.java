@@ -0,0 +1,71 @@
+package com.example.mongoRedis.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs each check as a single Lua script. Scripts are sent by SHA (EVALSHA) and only
+ * fall back to a full EVAL the first time a Redis node has not seen them.
+ */
+@Component
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Timer redisTimer;
+    private final Map<RateLimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(RateLimitAlgorithm.class);
+
+    // Unique member ids for the sliding log
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisTimer = redisTimer(meterRegistry, "check");
+        scripts.put(RateLimitAlgorithm.FIXED_WINDOW, script("fixed_window.lua"));
+        scripts.put(RateLimitAlgorithm.SLIDING_LOG, script("sliding_log.lua"));
+        scripts.put(RateLimitAlgorithm.TOKEN_BUCKET, script("token_bucket.lua"));
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        String redisKey = KEY_PREFIX + rule.getName() + ":" + key;
+        String windowMillis = String.valueOf(rule.getWindow().toMillis());
+        String third = rule.getAlgorithm() == RateLimitAlgorithm.SLIDING_LOG
+                ? instanceId + ":" + sequence.incrementAndGet()
+                : "1";
+
+        List<?> result = redisTimer.record(() -> redisTemplate.execute(scripts.get(rule.getAlgorithm()),
+                List.of(redisKey), String.valueOf(rule.getLimit()), windowMillis, third));
+
+        if (result == null || result.size() < 3) {
+            return RateLimitDecision.allow(rule.getLimit());
+        }
+        return new RateLimitDecision(
+                ((Number) result.get(0)).longValue() == 1,
+                ((Number) result.get(1)).longValue(),
+                ((Number) result.get(2)).longValue());
+    }
+
+    // Round trip of a limiter script; "check" for a single decision, "sync" for a hybrid batch
+    static Timer redisTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("ratelimit.redis")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    static RedisScript<List> script(String file) {
+        return RedisScript.of(new ClassPathResource("scripts/ratelimit/" + file), List.class);
+    }
+}
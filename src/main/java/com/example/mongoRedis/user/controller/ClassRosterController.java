@@ -0,0 +1,56 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.model.ClassEnrollment;
+import com.example.mongoRedis.user.service.ClassRosterService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClassRosterController {
+
+    private final ClassRosterService classRosterService;
+
+    public ClassRosterController(ClassRosterService classRosterService) {
+        this.classRosterService = classRosterService;
+    }
+
+    @GetMapping(ApiEndpoints.Roster.STUDENT_CLASSES)
+    public ApiResponse<CursorPage<ClassEnrollment>> getStudentClasses(@PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ApiResponse<>(true, classRosterService.getStudentClasses(studentId, cursor, size),
+                "Classes retrieved successfully");
+    }
+
+    @GetMapping(ApiEndpoints.Roster.STUDENT_TEACHERS)
+    public ApiResponse<List<String>> getStudentTeachers(@PathVariable String studentId) {
+        return new ApiResponse<>(true, classRosterService.getStudentTeachers(studentId),
+                "Teachers retrieved successfully");
+    }
+
+    @GetMapping(ApiEndpoints.Roster.CLASS_STUDENTS)
+    public ApiResponse<CursorPage<String>> getClassStudents(@PathVariable String classId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ApiResponse<>(true, classRosterService.getClassStudents(classId, cursor, size),
+                "Students retrieved successfully");
+    }
+
+    @PutMapping(ApiEndpoints.Roster.CLASS_STUDENT)
+    public ApiResponse<Void> addStudent(@PathVariable String classId, @PathVariable String studentId) {
+        classRosterService.addStudent(classId, studentId);
+        return new ApiResponse<>(true, null, "Student added to class");
+    }
+
+    @DeleteMapping(ApiEndpoints.Roster.CLASS_STUDENT)
+    public ApiResponse<Void> removeStudent(@PathVariable String classId, @PathVariable String studentId) {
+        classRosterService.removeStudent(classId, studentId);
+        return new ApiResponse<>(true, null, "Student removed from class");
+    }
+}
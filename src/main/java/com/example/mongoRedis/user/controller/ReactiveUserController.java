@@ -0,0 +1,87 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
+import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.request.UserBatchRequest;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// Reactive counterpart of UserController, active when the app runs as a WebFlux application
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping(ApiEndpoints.User.CREATE)
+    public Mono<ApiResponse<UserResponse>> createUser(@Valid @RequestBody UserRequest request) {
+        return userService.createUser(request)
+                .map(user -> new ApiResponse<>(true, user, "User created successfully"));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ApiResponse<UserResponse>> getUserById(@PathVariable String id) {
+        return userService.getUserById(id)
+                .map(user -> new ApiResponse<>(true, user, "User retrieved successfully"));
+    }
+
+    @GetMapping(ApiEndpoints.User.GET_ALL)
+    public Mono<ApiResponse<Page<UserResponse>>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return userService.getAllUsers(PageRequest.of(page, size))
+                .map(users -> new ApiResponse<>(true, users, "Users retrieved successfully"));
+    }
+
+    // Replaces one GET /{id} per user; results follow the order of the requested ids
+    @PostMapping(ApiEndpoints.User.BATCH)
+    public Mono<ApiResponse<List<UserResponse>>> getUsersByIds(@Valid @RequestBody UserBatchRequest request) {
+        return userService.getUsersByIds(request.getIds())
+                .map(users -> new ApiResponse<>(true, users, "Users retrieved successfully"));
+    }
+
+    @GetMapping(ApiEndpoints.User.GET_ALL_CURSOR)
+    public Mono<ApiResponse<CursorPage<UserResponse>>> getUsersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return userService.getUsersAfter(cursor, size, includeTotal)
+                .map(users -> new ApiResponse<>(true, users, "Users retrieved successfully"));
+    }
+
+    // e.g. ?fields=id,name,email - credentials are never exported
+    @GetMapping(value = ApiEndpoints.User.EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> exportUsers(@RequestParam(required = false) List<String> fields) {
+        return userService.exportUsers(fields);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ApiResponse<UserResponse>> updateUser(@PathVariable String id,
+            @Valid @RequestBody UserRequest request) {
+        return userService.updateUser(id, request)
+                .map(user -> new ApiResponse<>(true, user, "User updated successfully"));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ApiResponse<Void>> deleteUser(@PathVariable String id) {
+        return userService.deleteUser(id)
+                .thenReturn(new ApiResponse<>(true, null, "User deleted successfully"));
+    }
+}
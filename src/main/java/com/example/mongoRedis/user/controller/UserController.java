@@ -2,20 +2,36 @@ package com.example.mongoRedis.user.controller;
 
 import com.example.mongoRedis.common.ApiEndpoints.ApiEndpoints;
 import com.example.mongoRedis.common.response.ApiResponse;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.request.UserBatchRequest;
 import com.example.mongoRedis.user.dto.request.UserRequest;
 import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.UserExportService;
+import com.example.mongoRedis.user.service.UserImportService;
 import com.example.mongoRedis.user.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService,
+            UserExportService userExportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
     }
 
     @PostMapping(ApiEndpoints.User.CREATE)
@@ -34,6 +50,39 @@ public class UserController {
         return new ApiResponse<>(true, userService.getAllUsers(pageable), "Users retrieved successfully");
     }
 
+    // Replaces one GET /{id} per user; results follow the order of the requested ids
+    @PostMapping(ApiEndpoints.User.BATCH)
+    public ApiResponse<List<UserResponse>> getUsersByIds(@Valid @RequestBody UserBatchRequest request) {
+        return new ApiResponse<>(true, userService.getUsersByIds(request.getIds()), "Users retrieved successfully");
+    }
+
+    @GetMapping(ApiEndpoints.User.GET_ALL_CURSOR)
+    public ApiResponse<CursorPage<UserResponse>> getUsersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return new ApiResponse<>(true, userService.getUsersAfter(cursor, size, includeTotal),
+                "Users retrieved successfully");
+    }
+
+    // Streams per-row results back as NDJSON while the upload is still being read
+    @PostMapping(value = ApiEndpoints.User.IMPORT,
+            consumes = { MediaType.APPLICATION_NDJSON_VALUE, UserImportService.TEXT_CSV_VALUE },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userImportService.importUsers(request.getInputStream(), MediaType.parseMediaType(request.getContentType()),
+                response.getOutputStream());
+    }
+
+    // e.g. ?fields=id,name,email - credentials are never exported
+    @GetMapping(value = ApiEndpoints.User.EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(@RequestParam(required = false) List<String> fields, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userExportService.exportUsers(fields, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     public ApiResponse<UserResponse> updateUser(@PathVariable String id, @Valid @RequestBody UserRequest request) {
         return new ApiResponse<>(true, userService.updateUser(id, request), "User updated successfully");
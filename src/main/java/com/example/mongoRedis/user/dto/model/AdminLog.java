@@ -14,6 +14,7 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Stored in a time-series collection created by AdminAuditLogger
 @Document(collection = "admin_logs")
 public class AdminLog {
     @Id
@@ -22,5 +23,6 @@ public class AdminLog {
     private String adminId;  // reference to User.id
 
     private String action;   // e.g., "CREATE_USER", "UPDATE_COURSE"
+    private String targetId; // id of the user, course or class acted on
     private Date timestamp;
 }
@@ -0,0 +1,35 @@
+package com.example.mongoRedis.user.dto.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Reverse index of TeacherClass.studentIds: one document per (class, student), maintained by ClassRosterService
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@CompoundIndexes({
+        @CompoundIndex(name = "student_class", def = "{'studentId': 1, 'classId': 1}"),
+        @CompoundIndex(name = "class_student", def = "{'classId': 1, 'studentId': 1}"),
+})
+@Document(collection = "class_enrollments")
+public class ClassEnrollment {
+    @Id
+    private String id;  // classId:studentId
+
+    private String classId;  // reference to TeacherClass.id
+    private String studentId;  // reference to User.id
+
+    // Copied from the class so a student's classes can be listed without loading rosters
+    private String teacherId;
+    private String classCode;
+    private String className;
+    private String semester;
+    private String academicYear;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -20,6 +21,9 @@ public class User {
     @Id
     private String id;
 
+    @Version
+    private Long version;  // absent on users created before optimistic locking
+
     private String name;
 
     @Indexed(unique = true, sparse = true)
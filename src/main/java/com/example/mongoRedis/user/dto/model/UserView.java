@@ -0,0 +1,25 @@
+package com.example.mongoRedis.user.dto.model;
+
+import com.example.mongoRedis.common.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Read projection of User: repository methods returning this only fetch these fields, never credentials
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserView {
+    private String id;
+    private Long version;
+    private String name;
+    private String email;
+    private int age;
+    private UserType userType;
+    private List<Address> addresses;
+    private Guardian guardian;
+}
@@ -0,0 +1,18 @@
+package com.example.mongoRedis.user.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchRequest {
+    @NotEmpty(message = "At least one id is required")
+    private List<String> ids;
+}
@@ -37,4 +37,6 @@ public class UserRequest {
 
     @Valid
     private Guardian guardian; // optional, only for students
+
+    private Long version; // optional on update, the version last read; a mismatch is rejected
 }
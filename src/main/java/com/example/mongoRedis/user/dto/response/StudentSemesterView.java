@@ -0,0 +1,20 @@
+package com.example.mongoRedis.user.dto.response;
+
+import com.example.mongoRedis.user.dto.model.StudentCourse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cached courses of one student in one semester
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentSemesterView {
+    private String studentId;
+    private String semester;
+    private List<StudentCourse> courses;
+}
@@ -0,0 +1,20 @@
+package com.example.mongoRedis.user.dto.response;
+
+import com.example.mongoRedis.user.dto.model.TeacherClass;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cached classes of one teacher in one semester
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TeacherSemesterView {
+    private String teacherId;
+    private String semester;
+    private List<TeacherClass> classes;
+}
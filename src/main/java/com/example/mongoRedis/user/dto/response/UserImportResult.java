@@ -0,0 +1,26 @@
+package com.example.mongoRedis.user.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One NDJSON line per uploaded row; row numbers are 1-based and exclude the CSV header
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    private long row;
+    private Status status;
+    private String id;
+    private String email;
+    private String message;
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
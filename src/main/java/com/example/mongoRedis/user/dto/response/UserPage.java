@@ -0,0 +1,18 @@
+package com.example.mongoRedis.user.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cacheable form of one getAllUsers page (PageImpl itself cannot be deserialized)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPage {
+    private List<UserResponse> content;
+    private long totalElements;
+}
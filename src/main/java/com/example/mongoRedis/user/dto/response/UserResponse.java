@@ -18,6 +18,7 @@ import java.util.List;
 public class UserResponse {
     private static final long serialVersionUID = 1L;
     private String id;
+    private Long version; // send back on update to reject concurrent modifications
     private String name;
     private String email;
     private int age;
@@ -0,0 +1,25 @@
+package com.example.mongoRedis.user.repository;
+
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.model.UserView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    // UserView projections only fetch the fields a UserResponse needs
+    Mono<UserView> findViewById(String id);
+
+    Flux<UserView> findAllBy(Pageable pageable);
+
+    Flux<UserView> findViewsByIdIn(Collection<String> ids);
+
+    Flux<UserView> findByIdGreaterThan(String id, Pageable pageable);
+}
@@ -1,12 +1,32 @@
 package com.example.mongoRedis.user.repository;
 
 import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.model.UserView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // UserView projections only fetch the fields a UserResponse needs
+    Optional<UserView> findViewById(String id);
+
+    Page<UserView> findPageBy(Pageable pageable);
+
+    List<UserView> findViewsByIdIn(Collection<String> ids);
+
+    // Slice queries fetch one extra document to detect a next page and never run count()
+    Slice<UserView> findSliceBy(Pageable pageable);
+
+    Slice<UserView> findSliceByIdGreaterThan(String id, Pageable pageable);
 }
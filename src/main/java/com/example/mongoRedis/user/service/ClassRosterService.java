@@ -0,0 +1,22 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.model.ClassEnrollment;
+import com.example.mongoRedis.user.dto.model.TeacherClass;
+
+import java.util.List;
+
+public interface ClassRosterService {
+    // Brings the reverse index in line with a class that was saved as a whole
+    void indexClass(TeacherClass teacherClass);
+
+    void addStudent(String classId, String studentId);
+
+    void removeStudent(String classId, String studentId);
+
+    CursorPage<ClassEnrollment> getStudentClasses(String studentId, String cursor, int size);
+
+    List<String> getStudentTeachers(String studentId);
+
+    CursorPage<String> getClassStudents(String classId, String cursor, int size);
+}
@@ -0,0 +1,170 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.audit.AdminAuditLogger;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.exception.InvalidRequestException;
+import com.example.mongoRedis.exception.ResourceNotFoundException;
+import com.example.mongoRedis.user.dto.model.ClassEnrollment;
+import com.example.mongoRedis.user.dto.model.TeacherClass;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps {@code class_enrollments} in step with {@link TeacherClass#getStudentIds()} so "which
+ * classes / teachers does this student have" is an indexed lookup instead of a multikey scan that
+ * loads whole rosters. Roster edits are single-element {@code $addToSet}/{@code $pull} updates
+ * rather than rewrites of the class document.
+ */
+@Service
+public class ClassRosterServiceImpl implements ClassRosterService {
+
+    private final MongoTemplate mongoTemplate;
+    private final SemesterViewCache semesterViewCache;
+    private final AdminAuditLogger adminAuditLogger;
+
+    public ClassRosterServiceImpl(MongoTemplate mongoTemplate, SemesterViewCache semesterViewCache,
+            AdminAuditLogger adminAuditLogger) {
+        this.mongoTemplate = mongoTemplate;
+        this.semesterViewCache = semesterViewCache;
+        this.adminAuditLogger = adminAuditLogger;
+    }
+
+    // ---------------- INDEX CLASS ----------------
+    @Override
+    public void indexClass(TeacherClass teacherClass) {
+        List<String> studentIds = teacherClass.getStudentIds() != null ? teacherClass.getStudentIds() : List.of();
+
+        if (!studentIds.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ClassEnrollment.class);
+            for (String studentId : studentIds) {
+                bulk.upsert(byId(teacherClass.getId(), studentId), enrollment(teacherClass, studentId));
+            }
+            bulk.execute();
+        }
+
+        // Students dropped from the saved roster
+        mongoTemplate.remove(Query.query(where("classId").is(teacherClass.getId()).and("studentId").nin(studentIds)),
+                ClassEnrollment.class);
+    }
+
+    // ---------------- ROSTER CHANGES ----------------
+    @Override
+    public void addStudent(String classId, String studentId) {
+        TeacherClass teacherClass = updateRoster(classId, new Update().addToSet("studentIds", studentId));
+        mongoTemplate.upsert(byId(classId, studentId), enrollment(teacherClass, studentId), ClassEnrollment.class);
+        semesterViewCache.teacherClassSaved(teacherClass);
+        adminAuditLogger.record("ADD_CLASS_STUDENT", classId + ":" + studentId);
+    }
+
+    @Override
+    public void removeStudent(String classId, String studentId) {
+        TeacherClass teacherClass = updateRoster(classId, new Update().pull("studentIds", studentId));
+        mongoTemplate.remove(byId(classId, studentId), ClassEnrollment.class);
+        semesterViewCache.teacherClassSaved(teacherClass);
+        adminAuditLogger.record("REMOVE_CLASS_STUDENT", classId + ":" + studentId);
+    }
+
+    // Returns the class without its roster; only the one element changes on the server
+    private TeacherClass updateRoster(String classId, Update update) {
+        Query query = Query.query(where("_id").is(classId));
+        query.fields().exclude("studentIds");
+        TeacherClass teacherClass = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), TeacherClass.class);
+        if (teacherClass == null) {
+            throw new ResourceNotFoundException("Class not found");
+        }
+        return teacherClass;
+    }
+
+    // ---------------- QUERIES ----------------
+    @Override
+    public CursorPage<ClassEnrollment> getStudentClasses(String studentId, String cursor, int size) {
+        int limit = UserCursor.clampSize(size);
+        Criteria criteria = where("studentId").is(studentId);
+        if (cursor != null && !cursor.isBlank()) {
+            criteria = criteria.and("classId").gt(decode(cursor));
+        }
+
+        List<ClassEnrollment> found = mongoTemplate.find(Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "classId"))
+                .limit(limit + 1), ClassEnrollment.class);
+        List<ClassEnrollment> content = found.subList(0, Math.min(limit, found.size()));
+        return CursorPage.<ClassEnrollment>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(found.size() > limit ? encode(content.get(content.size() - 1).getClassId()) : null)
+                .build();
+    }
+
+    // A student has a handful of classes, so the distinct set is small regardless of class sizes
+    @Override
+    public List<String> getStudentTeachers(String studentId) {
+        return mongoTemplate.findDistinct(Query.query(where("studentId").is(studentId)), "teacherId",
+                ClassEnrollment.class, String.class);
+    }
+
+    // Pages by studentId over the class_student index, never materializing the embedded roster
+    @Override
+    public CursorPage<String> getClassStudents(String classId, String cursor, int size) {
+        int limit = UserCursor.clampSize(size);
+        Criteria criteria = where("classId").is(classId);
+        if (cursor != null && !cursor.isBlank()) {
+            criteria = criteria.and("studentId").gt(decode(cursor));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "studentId"))
+                .limit(limit + 1);
+        query.fields().include("studentId");
+        List<String> found = mongoTemplate.find(query, ClassEnrollment.class).stream()
+                .map(ClassEnrollment::getStudentId)
+                .toList();
+        List<String> content = found.subList(0, Math.min(limit, found.size()));
+        return CursorPage.<String>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(found.size() > limit ? encode(content.get(content.size() - 1)) : null)
+                .build();
+    }
+
+    // ---------------- HELPER ----------------
+    private static Query byId(String classId, String studentId) {
+        return Query.query(where("_id").is(classId + ":" + studentId));
+    }
+
+    private static Update enrollment(TeacherClass teacherClass, String studentId) {
+        return new Update()
+                .set("classId", teacherClass.getId())
+                .set("studentId", studentId)
+                .set("teacherId", teacherClass.getTeacherId())
+                .set("classCode", teacherClass.getClassCode())
+                .set("className", teacherClass.getClassName())
+                .set("semester", teacherClass.getSemester())
+                .set("academicYear", teacherClass.getAcademicYear());
+    }
+
+    // Ids here are not necessarily ObjectIds, so the cursor is the plain last key, base64url-encoded
+    private static String encode(String lastKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReactiveUserService {
+    Mono<UserResponse> createUser(UserRequest request);
+
+    Mono<UserResponse> getUserById(String id);
+
+    Mono<Page<UserResponse>> getAllUsers(Pageable pageable);
+
+    Mono<List<UserResponse>> getUsersByIds(List<String> ids);
+
+    Mono<CursorPage<UserResponse>> getUsersAfter(String cursor, int size, boolean includeTotal);
+
+    Flux<Map<String, Object>> exportUsers(List<String> fields);
+
+    Mono<UserResponse> updateUser(String id, UserRequest request);
+
+    Mono<Void> deleteUser(String id);
+}
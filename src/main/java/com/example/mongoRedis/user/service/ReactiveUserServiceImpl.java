@@ -0,0 +1,275 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.audit.AdminAuditLogger;
+import com.example.mongoRedis.cache.CacheGenerations;
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.cache.Caches;
+import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.common.util.PasswordHashExecutor;
+import com.example.mongoRedis.exception.CustomServiceException;
+import com.example.mongoRedis.exception.InvalidRequestException;
+import com.example.mongoRedis.user.dto.model.Credentials;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.model.UserView;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserPage;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final UserMapper userMapper;
+    private final CacheGenerations cacheGenerations;
+    private final AdminAuditLogger adminAuditLogger;
+    private final PasswordHashExecutor passwordHashExecutor;
+
+    @Value("${user.export.batch-size:500}")
+    private int exportBatchSize;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository, ReactiveMongoTemplate mongoTemplate,
+            CacheManager cacheManager, UserMapper userMapper, CacheGenerations cacheGenerations,
+            AdminAuditLogger adminAuditLogger, PasswordHashExecutor passwordHashExecutor) {
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.userMapper = userMapper;
+        this.cacheGenerations = cacheGenerations;
+        this.adminAuditLogger = adminAuditLogger;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    // ---------------- CREATE USER ----------------
+    @Override
+    public Mono<UserResponse> createUser(UserRequest request) {
+        return ensureEmailAvailable(request.getEmail())
+                .then(withHashedPassword(request.getCredentials()))
+                .flatMap(credentials -> userRepository.save(User.builder()
+                        .name(request.getName())
+                        .email(request.getEmail())
+                        .age(request.getAge())
+                        .userType(request.getUserType() != null ? request.getUserType() : UserType.STUDENT)
+                        .credentials(credentials.orElse(null))
+                        .addresses(request.getAddresses())
+                        .guardian(request.getGuardian())
+                        .build()))
+                .map(userMapper::toResponse)
+                .flatMap(response -> cachePut(response.getId(), response)
+                        .then(audit("CREATE_USER", response.getId()))
+                        .thenReturn(response));
+    }
+
+    // ---------------- GET USER BY ID ----------------
+    // Reads through the users cache shared with the servlet stack, like getUsersByIds
+    @Override
+    public Mono<UserResponse> getUserById(String id) {
+        return Mono.fromCallable(() -> usersCache().get(id, UserResponse.class))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> userRepository.findViewById(id)
+                        .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                        .map(userMapper::toResponse)
+                        .flatMap(response -> Mono.fromRunnable(() -> usersCache().put(id, response))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(response))));
+    }
+
+    // ---------------- UPDATE USER ----------------
+    // Same single findAndModify as the servlet stack (see UserUpdates)
+    @Override
+    public Mono<UserResponse> updateUser(String id, UserRequest request) {
+        return withHashedPassword(request.getCredentials())
+                .flatMap(credentials -> mongoTemplate.findAndModify(UserUpdates.query(id, request.getVersion()),
+                        UserUpdates.update(request, credentials.orElse(null)), UserUpdates.RETURN_NEW, User.class))
+                // Unique email index, as on the servlet stack
+                .onErrorMap(DuplicateKeyException.class, e -> new CustomServiceException("Email already exists"))
+                .switchIfEmpty(Mono.defer(() -> userRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new CustomServiceException("User was modified by another request, reload and retry")
+                                : new RuntimeException("User not found")))))
+                .map(userMapper::toResponse)
+                .flatMap(response -> cachePut(id, response)
+                        .then(audit("UPDATE_USER", id))
+                        .thenReturn(response));
+    }
+
+    // ---------------- DELETE USER ----------------
+    @Override
+    public Mono<Void> deleteUser(String id) {
+        return userRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? userRepository.deleteById(id)
+                        : Mono.error(new RuntimeException("User not found")))
+                .then(cacheEvict(id))
+                .then(audit("DELETE_USER", id));
+    }
+
+    // ---------------- GET ALL USERS ----------------
+    // Same generation-keyed userPages entries as the servlet stack, read and filled off the event loop
+    @Override
+    public Mono<Page<UserResponse>> getAllUsers(Pageable pageable) {
+        return Mono.fromCallable(() -> UserServiceImplementation.userPageKey(
+                        cacheGenerations.current(CacheNames.USERS), pageable))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(key -> Mono.fromCallable(() -> userPagesCache().get(key, UserPage.class))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .switchIfEmpty(Mono.defer(() -> userRepository.findAllBy(pageable)
+                                .map(userMapper::toResponse)
+                                .collectList()
+                                .zipWith(userRepository.count())
+                                .map(page -> new UserPage(page.getT1(), page.getT2()))
+                                .flatMap(page -> Mono.fromRunnable(() -> userPagesCache().put(key, page))
+                                        .subscribeOn(Schedulers.boundedElastic())
+                                        .thenReturn(page)))))
+                .map(page -> new PageImpl<>(page.getContent(), pageable, page.getTotalElements()));
+    }
+
+    // ---------------- GET USERS BY IDS ----------------
+    @Override
+    public Mono<List<UserResponse>> getUsersByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (ids.size() > UserBatch.MAX_IDS) {
+            return Mono.error(new InvalidRequestException("At most " + UserBatch.MAX_IDS + " ids per request"));
+        }
+
+        return Mono.fromCallable(() -> new HashMap<>(Caches.getAll(usersCache(), ids)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(found -> {
+                    List<String> misses = UserBatch.misses(ids, found);
+                    if (misses.isEmpty()) {
+                        return Mono.just(UserBatch.inRequestOrder(ids, found));
+                    }
+                    return userRepository.findViewsByIdIn(misses)
+                            .collectMap(UserView::getId, userMapper::toResponse, LinkedHashMap::new)
+                            .flatMap(loaded -> Mono.fromRunnable(() -> Caches.putAll(usersCache(), loaded))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .then(Mono.fromCallable(() -> {
+                                        found.putAll(loaded);
+                                        return UserBatch.inRequestOrder(ids, found);
+                                    })));
+                });
+    }
+
+    // ---------------- GET ALL USERS (KEYSET) ----------------
+    @Override
+    public Mono<CursorPage<UserResponse>> getUsersAfter(String cursor, int size, boolean includeTotal) {
+        int limit = UserCursor.clampSize(size);
+        // One extra document tells us whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.ASC, "id"));
+
+        Mono<List<UserResponse>> content = Mono.defer(() -> (cursor == null || cursor.isEmpty()
+                        ? userRepository.findAllBy(pageable)
+                        : userRepository.findByIdGreaterThan(UserCursor.decode(cursor), pageable))
+                .map(userMapper::toResponse)
+                .collectList());
+        Mono<Optional<Long>> total = includeTotal
+                ? userRepository.count().map(Optional::of)
+                : Mono.just(Optional.empty());
+
+        return content.zipWith(total).map(result -> {
+            List<UserResponse> users = result.getT1();
+            boolean hasNext = users.size() > limit;
+            List<UserResponse> page = hasNext ? users.subList(0, limit) : users;
+            return CursorPage.<UserResponse>builder()
+                    .content(page)
+                    .size(page.size())
+                    .nextCursor(hasNext ? UserCursor.encode(page.get(page.size() - 1).getId()) : null)
+                    .totalElements(result.getT2().orElse(null))
+                    .build();
+        });
+    }
+
+    // ---------------- EXPORT USERS ----------------
+    // Demand from the response subscriber drives cursor batches, so a slow client slows the read
+    @Override
+    public Flux<Map<String, Object>> exportUsers(List<String> requested) {
+        return Mono.fromCallable(() -> UserExportFields.resolve(requested))
+                .flatMapMany(fields -> mongoTemplate.find(UserExportFields.query(fields, exportBatchSize), User.class)
+                        .map(user -> UserExportFields.toRow(user, fields)));
+    }
+
+    // ---------------- HELPER ----------------
+    private Mono<Void> ensureEmailAvailable(String email) {
+        if (email == null || email.isEmpty()) {
+            return Mono.empty();
+        }
+        return userRepository.existsByEmail(email)
+                .flatMap(exists -> exists
+                        ? Mono.error(new CustomServiceException("Email already exists"))
+                        : Mono.empty());
+    }
+
+    // Passwords are hashed before they are stored, on the bounded hashing pool rather than the event loop
+    private Mono<Optional<Credentials>> withHashedPassword(Credentials credentials) {
+        if (credentials == null || credentials.getPassword() == null) {
+            return Mono.just(Optional.ofNullable(credentials));
+        }
+        return Mono.fromFuture(() -> passwordHashExecutor.encodeAsync(credentials.getPassword()))
+                .map(hash -> Optional.of(credentials.toBuilder().password(hash).build()));
+    }
+
+    // The users cache is shared with the servlet stack; its Redis tier is blocking, so keep it off the event loop.
+    // Every write also moves the users generation so the cached list pages of both stacks are retired.
+    private Mono<Void> cachePut(String id, UserResponse response) {
+        return Mono.fromRunnable(() -> {
+                    usersCache().put(id, response);
+                    cacheGenerations.bump(CacheNames.USERS);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Mono<Void> cacheEvict(String id) {
+        return Mono.fromRunnable(() -> {
+                    usersCache().evict(id);
+                    cacheGenerations.bump(CacheNames.USERS);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    // The servlet SecurityContextHolder is not populated here; the admin comes from the reactive context
+    private Mono<Void> audit(String action, String targetId) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(context -> context.getAuthentication() != null ? context.getAuthentication().getName() : null)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(adminId -> adminAuditLogger.record(action, targetId, adminId.orElse(null)))
+                .then();
+    }
+
+    private Cache usersCache() {
+        return cacheManager.getCache(CacheNames.USERS);
+    }
+
+    private Cache userPagesCache() {
+        return cacheManager.getCache(CacheNames.USER_PAGES);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.user.dto.model.StudentCourse;
+import com.example.mongoRedis.user.dto.model.TeacherClass;
+import com.example.mongoRedis.user.dto.response.StudentSemesterView;
+import com.example.mongoRedis.user.dto.response.TeacherSemesterView;
+import com.example.mongoRedis.user.repository.StudentCourseRepository;
+import com.example.mongoRedis.user.repository.TeacherClassRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per (user, semester) views of student courses and teacher classes. Reads load a whole view
+ * once; any save in it evicts the view on every instance and the next read loads it again.
+ * <p>
+ * Each view key has a write stamp, bumped before the eviction. A load reads the stamp before
+ * querying and again after caching the view, and evicts its own result if a write happened in
+ * between, so a load that overlapped a save here or on another instance cannot leave the
+ * pre-save view cached. Stamps live in Redis, with a local striped counter for writes on this
+ * instance; if Redis cannot be read the loaded view is served but not kept.
+ * <p>
+ * Saves used to be folded into the cached view instead of evicting it. That read-modify-write of
+ * L1 and L2 could interleave between instances and lose an update, and had no way to tell a
+ * load that overlapped a save, so it is not done: a view is one indexed query to load again,
+ * and a correct view after every save matters more than keeping it cached through the write.
+ */
+@Component
+public class SemesterViewCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SemesterViewCache.class);
+
+    private static final String STAMP_PREFIX = "cache:view-stamp:";
+    // Only has to outlive the longest load
+    private static final Duration STAMP_TTL = Duration.ofMinutes(10);
+    private static final int STRIPES = 64;
+
+    private static final RedisScript<Long> STAMP_WRITE =
+            RedisScript.of(new ClassPathResource("scripts/cache/stamp_write.lua"), Long.class);
+
+    private final StudentCourseRepository studentCourseRepository;
+    private final TeacherClassRepository teacherClassRepository;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final AtomicLong[] localStamps = new AtomicLong[STRIPES];
+
+    public SemesterViewCache(StudentCourseRepository studentCourseRepository,
+            TeacherClassRepository teacherClassRepository, CacheManager cacheManager,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.studentCourseRepository = studentCourseRepository;
+        this.teacherClassRepository = teacherClassRepository;
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        for (int i = 0; i < STRIPES; i++) {
+            localStamps[i] = new AtomicLong();
+        }
+    }
+
+    // ---------------- STUDENT COURSES ----------------
+    public List<StudentCourse> getStudentCourses(String studentId, String semester) {
+        return view(CacheNames.STUDENT_COURSES, key(studentId, semester), StudentSemesterView.class,
+                () -> new StudentSemesterView(studentId, semester,
+                        new ArrayList<>(studentCourseRepository.findByStudentIdAndSemester(studentId, semester))))
+                .getCourses();
+    }
+
+    public void studentCourseSaved(StudentCourse course) {
+        written(CacheNames.STUDENT_COURSES, key(course.getStudentId(), course.getSemester()));
+    }
+
+    // ---------------- TEACHER CLASSES ----------------
+    public List<TeacherClass> getTeacherClasses(String teacherId, String semester) {
+        return view(CacheNames.TEACHER_CLASSES, key(teacherId, semester), TeacherSemesterView.class,
+                () -> new TeacherSemesterView(teacherId, semester,
+                        new ArrayList<>(teacherClassRepository.findByTeacherIdAndSemester(teacherId, semester))))
+                .getClasses();
+    }
+
+    // Also used for roster edits, which change one class of the view
+    public void teacherClassSaved(TeacherClass teacherClass) {
+        written(CacheNames.TEACHER_CLASSES, key(teacherClass.getTeacherId(), teacherClass.getSemester()));
+    }
+
+    // ---------------- HELPER ----------------
+    private <V> V view(String cacheName, String key, Class<V> type, Supplier<V> loader) {
+        Cache cache = cache(cacheName);
+        V cached = cache.get(key, type);
+        if (cached != null) {
+            return cached;
+        }
+
+        String before = stamp(cacheName, key);
+        V loaded = loader.get();
+        if (before == null) {
+            return loaded;
+        }
+        cache.put(key, loaded);
+        if (!before.equals(stamp(cacheName, key))) {
+            log.debug("View {}::{} was written while loading, dropping the loaded copy", cacheName, key);
+            cache.evict(key);
+        }
+        return loaded;
+    }
+
+    private void written(String cacheName, String key) {
+        localStamp(key).incrementAndGet();
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.execute(STAMP_WRITE, List.of(STAMP_PREFIX + cacheName + ":" + key),
+                        String.valueOf(STAMP_TTL.toMillis()));
+            } catch (DataAccessException e) {
+                log.warn("Could not stamp write of view {}::{}: {}", cacheName, key, e.getMessage());
+            }
+        }
+        cache(cacheName).evict(key);
+    }
+
+    // Null when the shared stamp cannot be read
+    private String stamp(String cacheName, String key) {
+        String local = String.valueOf(localStamp(key).get());
+        if (redisTemplate == null) {
+            return local;
+        }
+        try {
+            return local + ":" + Objects.requireNonNullElse(
+                    redisTemplate.opsForValue().get(STAMP_PREFIX + cacheName + ":" + key), "0");
+        } catch (DataAccessException e) {
+            log.warn("Could not read write stamp of view {}::{}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(String userId, String semester) {
+        return userId + ":" + semester;
+    }
+
+    private AtomicLong localStamp(String key) {
+        return localStamps[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
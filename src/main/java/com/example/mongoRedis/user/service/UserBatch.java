@@ -0,0 +1,28 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.user.dto.response.UserResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Shared bookkeeping for batch lookups by id on the servlet and reactive stacks
+final class UserBatch {
+
+    static final int MAX_IDS = 1000;
+
+    private UserBatch() {} // prevent instantiation
+
+    static List<String> misses(List<String> ids, Map<Object, Object> found) {
+        return ids.stream().distinct().filter(id -> !found.containsKey(id)).toList();
+    }
+
+    // Unknown ids are left out; duplicates are returned at every position they were requested
+    static List<UserResponse> inRequestOrder(List<String> ids, Map<Object, Object> found) {
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(UserResponse.class::cast)
+                .toList();
+    }
+}
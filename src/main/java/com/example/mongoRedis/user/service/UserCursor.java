@@ -0,0 +1,34 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.exception.InvalidRequestException;
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+
+// Opaque continuation token for keyset paging: the last returned _id, base64url-encoded
+final class UserCursor {
+
+    static final int DEFAULT_SIZE = 20;
+    static final int MAX_SIZE = 2000;
+
+    private UserCursor() {} // prevent instantiation
+
+    static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(lastId).toByteArray());
+    }
+
+    static String decode(String cursor) {
+        try {
+            return new ObjectId(Base64.getUrlDecoder().decode(cursor)).toHexString();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    static int clampSize(int size) {
+        if (size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.exception.InvalidRequestException;
+import com.example.mongoRedis.user.dto.model.User;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Field selection for the user export; credentials are never exportable
+final class UserExportFields {
+
+    private static final Map<String, Function<User, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", User::getId);
+        FIELDS.put("name", User::getName);
+        FIELDS.put("email", User::getEmail);
+        FIELDS.put("age", User::getAge);
+        FIELDS.put("userType", User::getUserType);
+        FIELDS.put("addresses", User::getAddresses);
+        FIELDS.put("guardian", User::getGuardian);
+    }
+
+    static final List<String> DEFAULT = List.of("id", "name", "email", "age", "userType");
+
+    private UserExportFields() {} // prevent instantiation
+
+    static Set<String> resolve(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return new LinkedHashSet<>(DEFAULT);
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new InvalidRequestException("Unknown export field '" + name + "'. Allowed: " + FIELDS.keySet());
+            }
+            fields.add(name);
+        }
+        return fields;
+    }
+
+    // Projects on the server so unselected sub-documents are never sent or decoded
+    static Query query(Set<String> fields, int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        query.fields().include(fields.toArray(String[]::new));
+        if (!fields.contains("id")) {
+            query.fields().exclude("id");
+        }
+        return query;
+    }
+
+    static Map<String, Object> toRow(User user, Set<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        fields.forEach(field -> row.put(field, FIELDS.get(field).apply(user)));
+        return row;
+    }
+}
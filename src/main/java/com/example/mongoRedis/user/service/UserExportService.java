@@ -0,0 +1,10 @@
+package com.example.mongoRedis.user.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface UserExportService {
+    // Streams every user as one NDJSON line containing only the selected fields
+    void exportUsers(List<String> fields, OutputStream output) throws IOException;
+}
@@ -0,0 +1,57 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.user.dto.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${user.export.batch-size:500}")
+    private int batchSize;
+
+    public UserExportServiceImpl(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // ---------------- EXPORT USERS ----------------
+    // One open cursor and one generator for the whole export. Writes block on a slow client,
+    // which stops the cursor from fetching further batches, so memory stays at one batch.
+    @Override
+    public void exportUsers(List<String> requested, OutputStream output) throws IOException {
+        Set<String> fields = UserExportFields.resolve(requested);
+
+        try (Stream<User> users = mongoTemplate.stream(UserExportFields.query(fields, batchSize), User.class);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null); // lines are terminated explicitly below
+            long[] written = { 0 };
+            users.forEach(user -> {
+                try {
+                    generator.writeObject(UserExportFields.toRow(user, fields));
+                    generator.writeRaw('\n');
+                    if (++written[0] % batchSize == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mongoRedis.user.service;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UserImportService {
+    String TEXT_CSV_VALUE = "text/csv";
+
+    // Reads NDJSON or CSV rows from input and writes one UserImportResult per row to output as NDJSON
+    void importUsers(InputStream input, MediaType format, OutputStream output) throws IOException;
+}
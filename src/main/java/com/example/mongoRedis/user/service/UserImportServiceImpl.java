@@ -0,0 +1,321 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.audit.AdminAuditLogger;
+import com.example.mongoRedis.cache.CacheGenerations;
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.cache.Caches;
+import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.common.util.PasswordHashExecutor;
+import com.example.mongoRedis.user.dto.model.Credentials;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserImportResult;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final UserMapper userMapper;
+    private final CacheGenerations cacheGenerations;
+    private final AdminAuditLogger adminAuditLogger;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    @Value("${user.import.batch-size:500}")
+    private int batchSize;
+
+    public UserImportServiceImpl(MongoTemplate mongoTemplate, CacheManager cacheManager, ObjectMapper objectMapper,
+            UserMapper userMapper, CacheGenerations cacheGenerations, AdminAuditLogger adminAuditLogger,
+            PasswordHashExecutor passwordHashExecutor) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.userMapper = userMapper;
+        this.cacheGenerations = cacheGenerations;
+        this.adminAuditLogger = adminAuditLogger;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.ndjsonReader = objectMapper.readerFor(UserRequest.class);
+
+        CsvMapper csvMapper = CsvMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        // Flat columns only (name,email,age,userType); header order does not matter
+        this.csvReader = csvMapper.readerFor(UserRequest.class)
+                .with(CsvSchema.emptySchema().withHeader().withColumnReordering(true));
+    }
+
+    // ---------------- IMPORT USERS ----------------
+    @Override
+    public void importUsers(InputStream input, MediaType format, OutputStream output) throws IOException {
+        ObjectReader reader = TEXT_CSV.includes(format) ? csvReader : ndjsonReader;
+        List<Row> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+
+        try (MappingIterator<UserRequest> rows = reader.readValues(input)) {
+            while (true) {
+                if (batch.size() >= batchSize) {
+                    flush(batch, output);
+                }
+
+                UserRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    request = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // Bad field value: the iterator skips to the next record
+                    batch.add(Row.failed(++rowNumber, null, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Malformed input: nothing after this point can be trusted
+                    batch.add(Row.failed(++rowNumber, null, "Malformed input: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                String error = validate(request);
+                batch.add(error == null
+                        ? new Row(++rowNumber, request, null)
+                        : Row.failed(++rowNumber, request.getEmail(), error));
+            }
+        }
+        flush(batch, output);
+    }
+
+    // ---------------- BATCH ----------------
+    private void flush(List<Row> batch, OutputStream output) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Row> pending = batch.stream().filter(row -> row.result == null).toList();
+        rejectDuplicateEmails(pending);
+        hashPasswords(pending);
+
+        Map<String, Row> toInsert = new LinkedHashMap<>();
+        for (Row row : pending) {
+            if (row.result == null) {
+                row.user = toUser(row.request, row.credentials);
+                toInsert.put(row.user.getId(), row);
+            }
+        }
+        insert(toInsert);
+        primeCache(toInsert);
+
+        for (Row row : batch) {
+            output.write(objectMapper.writeValueAsBytes(row.result));
+            output.write('\n');
+        }
+        output.flush();
+        batch.clear();
+    }
+
+    // One $in query per batch instead of a findByEmail per row
+    private void rejectDuplicateEmails(List<Row> rows) {
+        Set<String> emails = rows.stream().map(row -> row.request.getEmail()).collect(Collectors.toSet());
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("email").in(emails));
+        query.fields().include("email");
+        Set<String> existing = mongoTemplate.find(query, User.class).stream()
+                .map(User::getEmail)
+                .collect(Collectors.toSet());
+
+        Set<String> seen = new HashSet<>();
+        for (Row row : rows) {
+            String email = row.request.getEmail();
+            if (existing.contains(email)) {
+                row.fail("Email already exists");
+            } else if (!seen.add(email)) {
+                row.fail("Duplicate email in upload");
+            }
+        }
+    }
+
+    // Hashed on the shared hashing pool, a window at a time; a row whose hash is shed fails on its own
+    private void hashPasswords(List<Row> rows) {
+        List<Row> withPassword = new ArrayList<>();
+        for (Row row : rows) {
+            row.credentials = row.request.getCredentials();
+            if (row.result == null && row.credentials != null && row.credentials.getPassword() != null) {
+                withPassword.add(row);
+            }
+        }
+        if (withPassword.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> hashes = passwordHashExecutor.encodeAll(
+                withPassword.stream().map(row -> row.credentials.getPassword()).toList());
+        for (int i = 0; i < withPassword.size(); i++) {
+            Row row = withPassword.get(i);
+            try {
+                row.credentials = row.credentials.toBuilder().password(hashes.get(i).join()).build();
+            } catch (CompletionException e) {
+                row.fail("Could not hash password: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private void insert(Map<String, Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Row> ordered = new ArrayList<>(rows.values());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        bulk.insert(ordered.stream().map(row -> row.user).toList());
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: every other document is still written, only the reported indexes failed
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.add(error.getIndex());
+                ordered.get(error.getIndex()).fail(error.getCode() == DUPLICATE_KEY
+                        ? "Email already exists"
+                        : error.getMessage());
+            }
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            Row row = ordered.get(i);
+            if (failedIndexes.contains(i)) {
+                rows.remove(row.user.getId());
+            } else {
+                adminAuditLogger.record("IMPORT_USER", row.user.getId());
+                row.result = UserImportResult.builder()
+                        .row(row.number)
+                        .status(UserImportResult.Status.CREATED)
+                        .id(row.user.getId())
+                        .email(row.user.getEmail())
+                        .build();
+            }
+        }
+
+        // One generation bump per batch retires cached user list pages
+        if (!rows.isEmpty()) {
+            cacheGenerations.bump(CacheNames.USERS);
+        }
+    }
+
+    // Warm the users cache the way @CachePut on createUser would, in one Redis pipeline
+    private void primeCache(Map<String, Row> rows) {
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+        if (cache == null || rows.isEmpty()) {
+            return;
+        }
+
+        Map<String, UserResponse> entries = new LinkedHashMap<>();
+        rows.forEach((id, row) -> entries.put(id, userMapper.toResponse(row.user)));
+        Caches.putAll(cache, entries);
+    }
+
+    // ---------------- HELPER ----------------
+    // Same rules as the constraints on UserRequest
+    private static String validate(UserRequest request) {
+        List<String> errors = new ArrayList<>();
+        if (request.getName() == null || request.getName().isBlank())
+            errors.add("Name is required");
+        if (request.getEmail() == null || request.getEmail().isBlank())
+            errors.add("Email is required");
+        else if (!EMAIL.matcher(request.getEmail()).matches())
+            errors.add("Invalid email format");
+        if (request.getAge() < 1)
+            errors.add("Age must be at least 1");
+        if (request.getUserType() == null)
+            errors.add("User type is required");
+        return errors.isEmpty() ? null : String.join("; ", errors);
+    }
+
+    private static User toUser(UserRequest request, Credentials credentials) {
+        return User.builder()
+                // Assigned up front so results and cache entries can be produced without re-reading
+                .id(new ObjectId().toHexString())
+                .name(request.getName())
+                .email(request.getEmail())
+                .age(request.getAge())
+                .userType(request.getUserType() != null ? request.getUserType() : UserType.STUDENT)
+                .credentials(credentials)
+                .addresses(request.getAddresses())
+                .guardian(request.getGuardian())
+                .build();
+    }
+
+    private static final class Row {
+        private final long number;
+        private final UserRequest request;
+        private UserImportResult result;
+        private Credentials credentials;
+        private User user;
+
+        private Row(long number, UserRequest request, UserImportResult result) {
+            this.number = number;
+            this.request = request;
+            this.result = result;
+        }
+
+        static Row failed(long number, String email, String message) {
+            return new Row(number, null, UserImportResult.builder()
+                    .row(number)
+                    .status(UserImportResult.Status.FAILED)
+                    .email(email)
+                    .message(message)
+                    .build());
+        }
+
+        void fail(String message) {
+            result = UserImportResult.builder()
+                    .row(number)
+                    .status(UserImportResult.Status.FAILED)
+                    .email(request.getEmail())
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.user.dto.model.Address;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.model.UserView;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Implementation is generated at compile time; credentials are never copied into a response
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    @Mapping(target = "credentials", ignore = true)
+    @Mapping(target = "addresses", expression = "java(addressesOrEmpty(view.getAddresses()))")
+    UserResponse toResponse(UserView view);
+
+    @Mapping(target = "credentials", ignore = true)
+    @Mapping(target = "addresses", expression = "java(addressesOrEmpty(user.getAddresses()))")
+    UserResponse toResponse(User user);
+
+    // Hands the decoded list over as-is rather than copying it
+    default List<Address> addressesOrEmpty(List<Address> addresses) {
+        return addresses != null ? addresses : new ArrayList<>();
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.mongoRedis.user.service;
 
+import com.example.mongoRedis.common.response.CursorPage;
 import com.example.mongoRedis.user.dto.request.UserRequest;
 import com.example.mongoRedis.user.dto.response.UserResponse;
 
+import java.util.List;
+
 public interface UserService {
     UserResponse createUser(UserRequest request);
 
@@ -10,6 +13,10 @@ public interface UserService {
 
     org.springframework.data.domain.Page<UserResponse> getAllUsers(org.springframework.data.domain.Pageable pageable);
 
+    List<UserResponse> getUsersByIds(List<String> ids);
+
+    CursorPage<UserResponse> getUsersAfter(String cursor, int size, boolean includeTotal);
+
     UserResponse updateUser(String id, UserRequest request);
 
     void deleteUser(String id);
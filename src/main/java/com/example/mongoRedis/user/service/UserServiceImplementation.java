@@ -1,48 +1,84 @@
 package com.example.mongoRedis.user.service;
 
+import com.example.mongoRedis.audit.AdminAuditLogger;
+import com.example.mongoRedis.cache.CacheGenerations;
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.cache.Caches;
 import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.common.util.PasswordHashExecutor;
 import com.example.mongoRedis.exception.CustomServiceException;
+import com.example.mongoRedis.exception.InvalidRequestException;
+import com.example.mongoRedis.user.dto.model.Credentials;
 import com.example.mongoRedis.user.dto.model.StudentCourse;
 import com.example.mongoRedis.user.dto.model.TeacherClass;
 import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.model.UserView;
 import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserPage;
 import com.example.mongoRedis.user.dto.response.UserResponse;
 import com.example.mongoRedis.user.repository.StudentCourseRepository;
 import com.example.mongoRedis.user.repository.TeacherClassRepository;
 import com.example.mongoRedis.user.repository.UserRepository;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserServiceImplementation implements UserService {
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
     private final StudentCourseRepository studentCourseRepository;
     private final TeacherClassRepository teacherClassRepository;
     private final CacheManager cacheManager;
-
-    public UserServiceImplementation(UserRepository userRepository, StudentCourseRepository studentCourseRepository,
-            TeacherClassRepository teacherClassRepository, CacheManager cacheManager) {
+    private final UserMapper userMapper;
+    private final CacheGenerations cacheGenerations;
+    private final SemesterViewCache semesterViewCache;
+    private final ClassRosterService classRosterService;
+    private final AdminAuditLogger adminAuditLogger;
+    private final PasswordHashExecutor passwordHashExecutor;
+
+    public UserServiceImplementation(UserRepository userRepository, MongoTemplate mongoTemplate,
+            StudentCourseRepository studentCourseRepository,
+            TeacherClassRepository teacherClassRepository, CacheManager cacheManager, UserMapper userMapper,
+            CacheGenerations cacheGenerations, SemesterViewCache semesterViewCache,
+            ClassRosterService classRosterService, AdminAuditLogger adminAuditLogger,
+            PasswordHashExecutor passwordHashExecutor) {
         this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
         this.studentCourseRepository = studentCourseRepository;
         this.teacherClassRepository = teacherClassRepository;
         this.cacheManager = cacheManager;
+        this.userMapper = userMapper;
+        this.cacheGenerations = cacheGenerations;
+        this.semesterViewCache = semesterViewCache;
+        this.classRosterService = classRosterService;
+        this.adminAuditLogger = adminAuditLogger;
+        this.passwordHashExecutor = passwordHashExecutor;
     }
 
     // ---------------- CREATE USER ----------------
-    @CachePut(value = "users", key = "#result.id")
+    @CachePut(value = CacheNames.USERS, key = "#result.id")
     public UserResponse createUser(UserRequest request) {
 
         if (request.getEmail() != null && !request.getEmail().isEmpty()) {
-            userRepository.findByEmail(request.getEmail())
-                    .ifPresent(u -> {
-                        throw new CustomServiceException("Email already exists");
-                    });
+            if (userRepository.existsByEmail(request.getEmail()))
+                throw new CustomServiceException("Email already exists");
         }
 
         User user = User.builder()
@@ -50,96 +86,147 @@ public class UserServiceImplementation implements UserService {
                 .email(request.getEmail())
                 .age(request.getAge())
                 .userType(request.getUserType() != null ? request.getUserType() : UserType.STUDENT)
-                .credentials(request.getCredentials())
+                .credentials(withHashedPassword(request.getCredentials()))
                 .addresses(request.getAddresses())
                 .guardian(request.getGuardian())
                 .build();
 
         User savedUser = userRepository.save(user);
-        return mapToResponse(savedUser);
+        cacheGenerations.bump(CacheNames.USERS);
+        adminAuditLogger.record("CREATE_USER", savedUser.getId());
+        return userMapper.toResponse(savedUser);
     }
 
     // ---------------- GET USER BY ID ----------------
-    @Cacheable(value = "users", key = "#id")
+    // sync: concurrent misses share one load (see TieredCache#get(Object, Callable))
+    @Cacheable(value = CacheNames.USERS, key = "#id", sync = true)
     public UserResponse getUserById(String id) {
-        User user = userRepository.findById(id)
+        UserView user = userRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return mapToResponse(user);
+        return userMapper.toResponse(user);
     }
 
     // ---------------- UPDATE USER ----------------
-    @CachePut(value = "users", key = "#id")
-    @CacheEvict(value = "users", key = "'allUsers'", allEntries = true)
+    // Replaces only this entry; list pages are invalidated by bumping the users generation.
+    // One round trip: the changed fields are $set and the updated user comes back for the cache.
+    @CachePut(value = CacheNames.USERS, key = "#id")
     public UserResponse updateUser(String id, UserRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            userRepository.findByEmail(request.getEmail())
-                    .ifPresent(u -> {
-                        throw new CustomServiceException("Email already exists");
-                    });
-            user.setEmail(request.getEmail());
+        User updatedUser;
+        try {
+            updatedUser = mongoTemplate.findAndModify(UserUpdates.query(id, request.getVersion()),
+                    UserUpdates.update(request, withHashedPassword(request.getCredentials())), UserUpdates.RETURN_NEW,
+                    User.class);
+        } catch (DuplicateKeyException e) {
+            // Unique email index, created at startup; no pre-check, which would cost a round trip and still race
+            throw new CustomServiceException("Email already exists");
         }
 
-        if (request.getName() != null)
-            user.setName(request.getName());
-        if (request.getAge() > 0)
-            user.setAge(request.getAge());
-        if (request.getAddresses() != null)
-            user.setAddresses(request.getAddresses());
-        if (request.getGuardian() != null)
-            user.setGuardian(request.getGuardian());
-        if (request.getCredentials() != null)
-            user.setCredentials(request.getCredentials());
-
-        User updatedUser = userRepository.save(user);
-        return mapToResponse(updatedUser);
+        if (updatedUser == null) {
+            if (!userRepository.existsById(id))
+                throw new RuntimeException("User not found");
+            throw new CustomServiceException("User was modified by another request, reload and retry");
+        }
+        cacheGenerations.bump(CacheNames.USERS);
+        adminAuditLogger.record("UPDATE_USER", id);
+        return userMapper.toResponse(updatedUser);
     }
 
     // ---------------- DELETE USER ----------------
-    @CacheEvict(value = "users", key = "#id")
+    @CacheEvict(value = CacheNames.USERS, key = "#id")
     public void deleteUser(String id) {
         if (!userRepository.existsById(id))
             throw new RuntimeException("User not found");
         userRepository.deleteById(id);
+        cacheGenerations.bump(CacheNames.USERS);
+        adminAuditLogger.record("DELETE_USER", id);
     }
 
     // ---------------- GET ALL USERS ----------------
+    // Cached per users generation, so any user write retires every cached page at once
     public org.springframework.data.domain.Page<UserResponse> getAllUsers(
             org.springframework.data.domain.Pageable pageable) {
-        org.springframework.data.domain.Page<User> userPage = userRepository.findAll(pageable);
-        return userPage.map(this::mapToResponse);
+        String key = userPageKey(cacheGenerations.current(CacheNames.USERS), pageable);
+        UserPage page = cacheManager.getCache(CacheNames.USER_PAGES).get(key, () -> {
+            org.springframework.data.domain.Page<UserView> userPage = userRepository.findPageBy(pageable);
+            return new UserPage(userPage.map(userMapper::toResponse).getContent(), userPage.getTotalElements());
+        });
+        return new PageImpl<>(page.getContent(), pageable, page.getTotalElements());
+    }
+
+    // Passwords are hashed before they are stored, on the bounded hashing pool
+    private Credentials withHashedPassword(Credentials credentials) {
+        if (credentials == null || credentials.getPassword() == null) {
+            return credentials;
+        }
+        return credentials.toBuilder().password(passwordHashExecutor.encode(credentials.getPassword())).build();
+    }
+
+    // Shared with ReactiveUserServiceImpl, so both stacks read and fill the same cached pages
+    static String userPageKey(String generation, Pageable pageable) {
+        return generation + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+
+    // ---------------- GET USERS BY IDS ----------------
+    // One L1/MGET pass over the users cache, one $in query for the misses, one pipelined back-fill
+    public List<UserResponse> getUsersByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty())
+            return List.of();
+        if (ids.size() > UserBatch.MAX_IDS)
+            throw new InvalidRequestException("At most " + UserBatch.MAX_IDS + " ids per request");
+
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+        Map<Object, Object> found = new HashMap<>(Caches.getAll(cache, ids));
+
+        List<String> misses = UserBatch.misses(ids, found);
+        if (!misses.isEmpty()) {
+            Map<String, UserResponse> loaded = new LinkedHashMap<>();
+            for (UserView user : userRepository.findViewsByIdIn(misses))
+                loaded.put(user.getId(), userMapper.toResponse(user));
+            Caches.putAll(cache, loaded);
+            found.putAll(loaded);
+        }
+        return UserBatch.inRequestOrder(ids, found);
+    }
+
+    // ---------------- GET ALL USERS (KEYSET) ----------------
+    // Seeks past the last seen _id on the primary key index, so page cost does not grow with depth
+    public CursorPage<UserResponse> getUsersAfter(String cursor, int size, boolean includeTotal) {
+        Pageable pageable = PageRequest.of(0, UserCursor.clampSize(size), Sort.by(Sort.Direction.ASC, "id"));
+        Slice<UserView> slice = cursor == null || cursor.isEmpty()
+                ? userRepository.findSliceBy(pageable)
+                : userRepository.findSliceByIdGreaterThan(UserCursor.decode(cursor), pageable);
+
+        List<UserResponse> content = slice.getContent().stream().map(userMapper::toResponse).toList();
+        return CursorPage.<UserResponse>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(slice.hasNext() ? UserCursor.encode(content.get(content.size() - 1).getId()) : null)
+                .totalElements(includeTotal ? userRepository.count() : null)
+                .build();
     }
 
     // ---------------- STUDENT COURSES ----------------
     public List<StudentCourse> getStudentCourses(String studentId, String semester) {
-        return studentCourseRepository.findByStudentIdAndSemester(studentId, semester);
+        return semesterViewCache.getStudentCourses(studentId, semester);
     }
 
     public StudentCourse addStudentCourse(StudentCourse course) {
-        return studentCourseRepository.save(course);
+        StudentCourse saved = studentCourseRepository.save(course);
+        semesterViewCache.studentCourseSaved(saved);
+        adminAuditLogger.record("ADD_COURSE", saved.getId());
+        return saved;
     }
 
     // ---------------- TEACHER CLASSES ----------------
     public List<TeacherClass> getTeacherClasses(String teacherId, String semester) {
-        return teacherClassRepository.findByTeacherIdAndSemester(teacherId, semester);
+        return semesterViewCache.getTeacherClasses(teacherId, semester);
     }
 
     public TeacherClass addTeacherClass(TeacherClass teacherClass) {
-        return teacherClassRepository.save(teacherClass);
-    }
-
-    // ---------------- HELPER ----------------
-    private UserResponse mapToResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .age(user.getAge())
-                .userType(user.getUserType() != null ? UserType.valueOf(user.getUserType().name()) : null)
-                .addresses(user.getAddresses() != null ? user.getAddresses() : new ArrayList<>())
-                .guardian(user.getGuardian())
-                .build();
+        TeacherClass saved = teacherClassRepository.save(teacherClass);
+        classRosterService.indexClass(saved);
+        semesterViewCache.teacherClassSaved(saved);
+        adminAuditLogger.record("ADD_CLASS", saved.getId());
+        return saved;
     }
 }
@@ -0,0 +1,51 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.user.dto.model.Credentials;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Single findAndModify for updateUser: $set only what the request carries, bump the version, return the new projection
+final class UserUpdates {
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private UserUpdates() {} // prevent instantiation
+
+    // With an expected version the update only applies if nobody changed the user since it was read;
+    // documents written before versioning have no field and count as version 0
+    static Query query(String id, Long expectedVersion) {
+        Criteria criteria = where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = expectedVersion == 0
+                    ? criteria.orOperator(where("version").is(0L), where("version").exists(false))
+                    : criteria.and("version").is(expectedVersion);
+        }
+        Query query = Query.query(criteria);
+        query.fields().exclude("credentials");
+        return query;
+    }
+
+    // Same rules as the old read-modify-save: absent fields and non-positive ages are left untouched.
+    // credentials are the request's with the password already hashed
+    static Update update(UserRequest request, Credentials credentials) {
+        Update update = new Update().inc("version", 1);
+        if (request.getEmail() != null)
+            update.set("email", request.getEmail());
+        if (request.getName() != null)
+            update.set("name", request.getName());
+        if (request.getAge() > 0)
+            update.set("age", request.getAge());
+        if (request.getAddresses() != null)
+            update.set("addresses", request.getAddresses());
+        if (request.getGuardian() != null)
+            update.set("guardian", request.getGuardian());
+        if (credentials != null)
+            update.set("credentials", credentials);
+        return update;
+    }
+}
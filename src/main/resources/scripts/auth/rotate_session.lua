@@ -0,0 +1,12 @@
+-- Replaces a session's record only if it is still the exact record the caller read and checked the
+-- presented refresh token against, so a refresh token can be redeemed exactly once. The token itself
+-- is compared in Java in constant time; the record compared here was read from Redis, not supplied by
+-- the client
+-- KEYS[1] session hash
+-- ARGV[1] session id, ARGV[2] record read by the caller, ARGV[3] new session record, ARGV[4] key ttl ms
+if redis.call('HGET', KEYS[1], ARGV[1]) ~= ARGV[2] then
+    return 0
+end
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+return 1
@@ -0,0 +1,29 @@
+-- Adds or replaces one session of a user, dropping sessions whose refresh token has expired and,
+-- at the per-user limit, the session closest to expiry
+-- KEYS[1] session hash
+-- ARGV[1] session id, ARGV[2] session record (expiries in base 36), ARGV[3] now (epoch s), ARGV[4] key ttl ms,
+-- ARGV[5] max sessions per user
+local now = tonumber(ARGV[3])
+local entries = redis.call('HGETALL', KEYS[1])
+local count, oldestField, oldestExpiry = 0, nil, nil
+for i = 1, #entries, 2 do
+    local field = entries[i]
+    if field ~= ARGV[1] then
+        local refreshExpiry = tonumber(string.match(entries[i + 1], ':(%w+)$') or '', 36)
+        if refreshExpiry == nil or refreshExpiry <= now then
+            redis.call('HDEL', KEYS[1], field)
+        else
+            count = count + 1
+            if oldestExpiry == nil or refreshExpiry < oldestExpiry then
+                oldestField, oldestExpiry = field, refreshExpiry
+            end
+        end
+    end
+end
+if oldestField and count >= tonumber(ARGV[5]) then
+    redis.call('HDEL', KEYS[1], oldestField)
+end
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+-- The newest session always expires last, so the hash lives exactly as long as it is needed
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+return 1
@@ -0,0 +1,6 @@
+-- Extends a lease only if it is still held by the caller
+-- KEYS[1] lease key, ARGV[1] owner id, ARGV[2] ttl in milliseconds
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,5 @@
+-- Bumps a write stamp and sets its expiry in one step, so a stamp key never outlives its ttl
+-- KEYS[1] stamp key, ARGV[1] ttl in milliseconds
+local stamp = redis.call('INCR', KEYS[1])
+redis.call('PEXPIRE', KEYS[1], ARGV[1])
+return stamp
@@ -0,0 +1,20 @@
+-- Fixed window counter.
+-- KEYS[1] counter key
+-- ARGV[1] limit, ARGV[2] window in ms, ARGV[3] permits to consume
+-- Returns {allowed, remaining, retryAfterMs, count}
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local cost = tonumber(ARGV[3])
+
+local count = redis.call('INCRBY', KEYS[1], cost)
+local ttl = redis.call('PTTL', KEYS[1])
+if ttl < 0 then
+    -- new window, or a counter left without expiry by an older client
+    redis.call('PEXPIRE', KEYS[1], window)
+    ttl = window
+end
+
+if count > limit then
+    return {0, 0, ttl, count}
+end
+return {1, limit - count, 0, count}
@@ -0,0 +1,61 @@
+package com.example.mongoRedis.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheGenerationsTest {
+
+    private static final String KEY = "cache:gen:" + CacheNames.USERS;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private CacheGenerations generations;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("redisTemplate", redisTemplate);
+        generations = new CacheGenerations(beans.getBeanProvider(StringRedisTemplate.class));
+    }
+
+    @Test
+    void bumpMissedDuringAnOutageIsAppliedOnceRedisIsBack() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("down");
+        when(values.increment(KEY)).thenThrow(down, down).thenReturn(6L);
+        when(values.get(KEY)).thenReturn("6");
+
+        generations.bump(CacheNames.USERS);
+        assertEquals("local-1", generations.current(CacheNames.USERS));
+
+        assertEquals("6", generations.current(CacheNames.USERS));
+        verify(values, times(3)).increment(KEY);
+
+        // Applied once only
+        generations.current(CacheNames.USERS);
+        verify(values, times(3)).increment(KEY);
+    }
+
+    @Test
+    void laterSuccessfulBumpCoversAMissedOne() {
+        when(values.increment(KEY)).thenThrow(new RedisConnectionFailureException("down")).thenReturn(6L);
+        when(values.get(KEY)).thenReturn("6");
+
+        generations.bump(CacheNames.USERS);
+        generations.bump(CacheNames.USERS);
+        generations.current(CacheNames.USERS);
+
+        verify(values, times(2)).increment(KEY);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mongoRedis.cache;
+
+import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactCacheSerializerTest {
+
+    private static final UserResponse USER = UserResponse.builder()
+            .id("u1").version(3L).name("Alice").email("alice@example.com").age(30).userType(UserType.STUDENT)
+            .build();
+
+    private final CompactCacheSerializer<UserResponse> compact =
+            new CompactCacheSerializer<>(UserResponse.class, 1024, true);
+
+    @Test
+    void roundTripsSmallValuesUncompressed() {
+        byte[] bytes = compact.serialize(USER);
+
+        assertEquals(CompactCacheSerializer.MAGIC, bytes[0]);
+        assertEquals(0, bytes[2]);
+        assertEquals(USER, compact.deserialize(bytes));
+    }
+
+    @Test
+    void roundTripsLargeValuesWithLz4() {
+        UserResponse large = UserResponse.builder().id("u2").name("x".repeat(4000)).build();
+
+        byte[] bytes = compact.serialize(large);
+
+        assertEquals(1, bytes[2]);
+        assertTrue(bytes.length < 4000);
+        assertEquals(large, compact.deserialize(bytes));
+    }
+
+    @Test
+    void readsLegacyJsonEntries() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(USER);
+
+        assertEquals(USER, compact.deserialize(legacy));
+    }
+
+    @Test
+    void writesLegacyJsonUntilCompactWritesAreEnabled() {
+        CompactCacheSerializer<UserResponse> json = new CompactCacheSerializer<>(UserResponse.class, 1024, false);
+
+        byte[] bytes = json.serialize(USER);
+
+        // Readable by instances that only know the JSON serializer
+        assertEquals(USER, new GenericJackson2JsonRedisSerializer().deserialize(bytes));
+        assertEquals(USER, compact.deserialize(bytes));
+    }
+
+    @Test
+    void unreadableEntriesAreMisses() {
+        assertNull(compact.deserialize("{not json".getBytes(StandardCharsets.UTF_8)));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, 99, 0}));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, 1,
+                0, 0, 0, 50, 1, 2, 3}));
+        // LZ4 entries: truncated length, negative, zero and huge lengths, short body
+        byte lz4 = 1;
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, lz4,
+                0, 0}));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, lz4,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 1, 2}));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, lz4,
+                0, 0, 0, 0, 1, 2}));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, lz4,
+                0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2}));
+        assertNull(compact.deserialize(new byte[] {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, lz4,
+                0, 0, 0, 50}));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.mongoRedis.cache;
+
+import com.example.mongoRedis.support.TestRedis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredCacheTest {
+
+    private static final String CACHE = "test";
+
+    private final List<TieredCacheManager> managers = new ArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        managers.forEach(TieredCacheManager::destroy);
+    }
+
+    // ---------------- SINGLE-FLIGHT ----------------
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        Cache cache = manager(null, null, 0).getCache(CACHE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> cache.get("k", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "v";
+            }), callers));
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);  // let the other callers reach the shared load
+        release.countDown();
+
+        for (CompletableFuture<String> caller : results) {
+            assertEquals("v", caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadReachesEveryWaiterAndIsNotCached() throws Exception {
+        Cache cache = manager(null, null, 0).getCache(CACHE);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("k", () -> {
+            loading.countDown();
+            release.await();
+            throw new IllegalStateException("mongo down");
+        }), callers);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second =
+                CompletableFuture.supplyAsync(() -> cache.get("k", () -> "unused"), callers);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertInstanceOf(Cache.ValueRetrievalException.class,
+                assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+        assertInstanceOf(Cache.ValueRetrievalException.class,
+                assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals("v", cache.get("k", () -> "v"));
+    }
+
+    // ---------------- LEASE ----------------
+    @Test
+    void leaseHolderLoadsOnceAcrossInstancesAndReleasesTheLease() throws Exception {
+        StringRedisTemplate redis = TestRedis.template();
+        String prefix = "test:" + UUID.randomUUID() + ":";
+        Cache instanceA = manager(redis, prefix, 0).getCache(CACHE);
+        Cache instanceB = manager(redis, prefix, 0).getCache(CACHE);
+        String leaseKey = "lease:" + CACHE + "::k";
+        redis.delete(leaseKey);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() -> instanceA.get("k", () -> {
+            release.await();
+            return "from-a";
+        }), callers);
+        awaitKey(redis, leaseKey);
+
+        AtomicInteger bLoads = new AtomicInteger();
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> instanceB.get("k", () -> {
+            bLoads.incrementAndGet();
+            return "from-b";
+        }), callers);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("from-a", holder.get(5, TimeUnit.SECONDS));
+        assertEquals("from-a", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bLoads.get());
+        assertFalse(Boolean.TRUE.equals(redis.hasKey(leaseKey)));
+    }
+
+    // ---------------- XFETCH ----------------
+    @Test
+    void hotEntryIsRefreshedInTheBackgroundBeforeItExpires() throws Exception {
+        StringRedisTemplate redis = TestRedis.template();
+        // A huge beta makes every L2 hit due for refresh
+        TieredCacheManager manager = manager(redis, "test:" + UUID.randomUUID() + ":", 1_000_000);
+        TieredCache cache = (TieredCache) manager.getCache(CACHE);
+        cache.put("k", "old");
+        cache.clearLocal();
+
+        CountDownLatch refreshed = new CountDownLatch(1);
+        String value = cache.get("k", () -> {
+            refreshed.countDown();
+            return "new";
+        });
+
+        assertEquals("old", value);
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!"new".equals(cache.get("k", String.class)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("new", cache.get("k", String.class));
+    }
+
+    private TieredCacheManager manager(StringRedisTemplate redis, String keyPrefix, double earlyRefreshBeta) {
+        RedisCacheManager l2Manager = redis == null ? null : RedisCacheManager
+                .builder(TestRedis.connectionFactory())
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .prefixCacheNameWith(keyPrefix)
+                        .entryTtl(Duration.ofMinutes(1)))
+                .build();
+        TieredCacheManager manager = TieredCacheManager.builder()
+                .l2Manager(l2Manager)
+                .redisTemplate(redis)
+                .defaultTtl(Duration.ofMinutes(1))
+                .l1MaxSize(100)
+                .l1Ttl(Duration.ofSeconds(1))
+                .l2RetryInterval(Duration.ofSeconds(5))
+                .leaseTtl(redis != null ? Duration.ofSeconds(2) : null)
+                .earlyRefreshBeta(earlyRefreshBeta)
+                .build();
+        manager.afterPropertiesSet();
+        managers.add(manager);
+        return manager;
+    }
+
+    private static void awaitKey(StringRedisTemplate redis, String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Boolean.TRUE.equals(redis.hasKey(key))) {
+            assertTrue(System.currentTimeMillis() < deadline, "lease was never taken");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.mongoRedis.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed read/write traffic against the users caches, comparing the old allEntries eviction on
+ * every update with the per-entry put plus generation bump. Traffic is seeded, so the ratios are
+ * reproducible: 70% single-user reads skewed towards a hot set, 20% list-page reads and 10%
+ * updates over 1,000 users.
+ */
+class UserCacheHitRatioScenarioTest {
+
+    private static final int USERS = 1_000;
+    private static final int PAGES = 20;
+    private static final int OPERATIONS = 50_000;
+
+    @Test
+    void generationKeysKeepTheHitRatioUnderSteadyUpdates() {
+        double clearAll = run(false);
+        double generations = run(true);
+
+        System.out.printf("users cache hit ratio: allEntries eviction %.2f, generation keys %.2f%n",
+                clearAll, generations);
+        assertTrue(clearAll < 0.3, "allEntries eviction " + clearAll);
+        assertTrue(generations > 0.7, "generation keys " + generations);
+    }
+
+    private static double run(boolean generationKeys) {
+        TieredCacheManager manager = TieredCacheManager.builder()
+                .defaultTtl(Duration.ofMinutes(30))
+                .l1MaxSize(10_000)
+                .l1Ttl(Duration.ofMinutes(5))
+                .l2RetryInterval(Duration.ofSeconds(5))
+                .build();
+        Cache users = manager.getCache(CacheNames.USERS);
+        Cache pages = manager.getCache(CacheNames.USER_PAGES);
+        CacheGenerations cacheGenerations = new CacheGenerations(
+                new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class));
+
+        Random random = new Random(42);
+        int reads = 0;
+        int hits = 0;
+        try {
+            for (int i = 0; i < OPERATIONS; i++) {
+                int roll = random.nextInt(100);
+                if (roll < 70) {
+                    String id = "u" + skewed(random);
+                    reads++;
+                    if (users.get(id) != null) {
+                        hits++;
+                    } else {
+                        users.put(id, "user " + id);
+                    }
+                } else if (roll < 90) {
+                    String key = (generationKeys ? cacheGenerations.current(CacheNames.USERS) : "all") + ":"
+                            + random.nextInt(PAGES);
+                    Cache pageCache = generationKeys ? pages : users;
+                    reads++;
+                    if (pageCache.get(key) != null) {
+                        hits++;
+                    } else {
+                        pageCache.put(key, "page " + key);
+                    }
+                } else {
+                    String id = "u" + skewed(random);
+                    if (generationKeys) {
+                        users.put(id, "user " + id + " v" + i);
+                        cacheGenerations.bump(CacheNames.USERS);
+                    } else {
+                        users.clear();
+                    }
+                }
+            }
+        } finally {
+            manager.destroy();
+        }
+        return (double) hits / reads;
+    }
+
+    // 80% of traffic goes to the first 20% of users
+    private static int skewed(Random random) {
+        return random.nextInt(100) < 80 ? random.nextInt(USERS / 5) : random.nextInt(USERS);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.mongoRedis.common.util;
+
+import com.example.mongoRedis.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashExecutorTest {
+
+    private final PasswordEncoderUtil encoder = mock(PasswordEncoderUtil.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void hashBeyondTheQueueIsShedWithA503() throws Exception {
+        executor = executor(Duration.ofSeconds(5));
+        CountDownLatch hashing = new CountDownLatch(1);
+        when(encoder.matches("slow", "hash")).thenAnswer(invocation -> {
+            hashing.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        when(encoder.matches("queued", "hash")).thenReturn(true);
+
+        CompletableFuture<Boolean> running = executor.verifyAsync("slow", "hash");
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.verifyAsync("queued", "hash");
+
+        ServiceUnavailableException shed = assertThrows(ServiceUnavailableException.class,
+                () -> executor.verify("third", "hash"));
+        assertEquals(5, shed.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.password.rejected").tag("reason", "queue_full").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void hashThatWaitedPastMaxWaitIsSkipped() throws Exception {
+        executor = executor(Duration.ofMillis(50));
+        CountDownLatch hashing = new CountDownLatch(1);
+        when(encoder.matches("slow", "hash")).thenAnswer(invocation -> {
+            hashing.countDown();
+            Thread.sleep(200);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = executor.verifyAsync("slow", "hash");
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.verifyAsync("queued", "hash");
+
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceUnavailableException.class,
+                assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, registry.get("auth.password.rejected").tag("reason", "expired").counter().count());
+    }
+
+    @Test
+    void bulkEncodeNeverFillsTheQueue() {
+        executor = executor(Duration.ofSeconds(5));
+        when(encoder.encryptPassword(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return "hash-" + invocation.getArgument(0);
+        });
+
+        List<String> hashes = executor.encodeAll(List.of("a", "b", "c")).stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertEquals(List.of("hash-a", "hash-b", "hash-c"), hashes);
+        assertEquals(0, registry.get("auth.password.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    // One thread and one queue slot, so the third concurrent hash has nowhere to go
+    private PasswordHashExecutor executor(Duration maxWait) {
+        PasswordHashExecutor executor = new PasswordHashExecutor(encoder, registry);
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "maxWait", maxWait);
+        executor.start();
+        return executor;
+    }
+}
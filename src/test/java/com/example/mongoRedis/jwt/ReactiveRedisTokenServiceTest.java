@@ -0,0 +1,85 @@
+package com.example.mongoRedis.jwt;
+
+import com.example.mongoRedis.support.TestRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Servlet and reactive instances share sessions, so a write on either must clear the other's near-cache
+class ReactiveRedisTokenServiceTest {
+
+    private final StringRedisTemplate redis = TestRedis.template();
+    private final String userId = "test-" + UUID.randomUUID();
+    private final RedisMessageListenerContainer listeners = new RedisMessageListenerContainer();
+    private RedisTokenService servletTokens;
+    private ReactiveRedisTokenService reactiveTokens;
+
+    @BeforeEach
+    void setUp() {
+        listeners.setConnectionFactory(TestRedis.connectionFactory());
+        listeners.afterPropertiesSet();
+        servletTokens = new RedisTokenService(redis, nearCache(), new SimpleMeterRegistry());
+        reactiveTokens = new ReactiveRedisTokenService(new ReactiveStringRedisTemplate(TestRedis.connectionFactory()),
+                nearCache(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reactiveTokens, "maxSessionsPerUser", 10);
+        ReflectionTestUtils.setField(reactiveTokens, "accessTokenExpiry", 900_000L);
+        ReflectionTestUtils.setField(reactiveTokens, "refreshTokenExpiry", 604_800_000L);
+        // Subscribes both near-caches before the test publishes anything
+        listeners.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        redis.delete(RedisTokenService.key(userId));
+        listeners.destroy();
+    }
+
+    @Test
+    void reactiveWritesInvalidateTheServletNearCache() {
+        reactiveTokens.storeSession(userId, "s1", "access-1", "refresh-1").block();
+        // Loads the record into the servlet instance's near-cache
+        assertTrue(servletTokens.isAccessTokenValid(userId, "s1", "access-1"));
+
+        assertTrue(reactiveTokens.rotateSession(userId, "s1", "refresh-1", "access-2", "refresh-2").block());
+        eventually(() -> servletTokens.isAccessTokenValid(userId, "s1", "access-2"));
+        assertFalse(servletTokens.isAccessTokenValid(userId, "s1", "access-1"));
+
+        reactiveTokens.deleteAllSessions(userId).block();
+        eventually(() -> !servletTokens.isAccessTokenValid(userId, "s1", "access-2"));
+    }
+
+    private AccessTokenNearCache nearCache() {
+        AccessTokenNearCache nearCache = new AccessTokenNearCache(redis, listeners, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(nearCache, "enabled", true);
+        ReflectionTestUtils.setField(nearCache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(nearCache, "maxSize", 100L);
+        nearCache.init();
+        return nearCache;
+    }
+
+    // The invalidation reaches the other instance over pub/sub, so it lands shortly after the write
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mongoRedis.jwt;
+
+import com.example.mongoRedis.support.TestRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisTokenServiceTest {
+
+    private static final long ACCESS_TOKEN_EXPIRY = 900_000;
+    private static final long REFRESH_TOKEN_EXPIRY = 604_800_000;
+
+    private final StringRedisTemplate redis = TestRedis.template();
+    private final String userId = "test-" + UUID.randomUUID();
+    private RedisTokenService tokens;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        tokens = new RedisTokenService(redis, new AccessTokenNearCache(redis, null, registry), registry);
+        ReflectionTestUtils.setField(tokens, "maxSessionsPerUser", 2);
+        ReflectionTestUtils.setField(tokens, "accessTokenExpiry", ACCESS_TOKEN_EXPIRY);
+        ReflectionTestUtils.setField(tokens, "refreshTokenExpiry", REFRESH_TOKEN_EXPIRY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redis.delete(RedisTokenService.key(userId));
+    }
+
+    // ---------------- ROTATE ----------------
+    @Test
+    void refreshTokenCanBeRedeemedOnlyOnce() {
+        tokens.storeSession(userId, "s1", "access-1", "refresh-1");
+
+        assertTrue(tokens.rotateSession(userId, "s1", "refresh-1", "access-2", "refresh-2"));
+        assertTrue(tokens.isAccessTokenValid(userId, "s1", "access-2"));
+        assertFalse(tokens.isAccessTokenValid(userId, "s1", "access-1"));
+
+        // Replay of the redeemed token, then rotation with the token that replaced it
+        assertFalse(tokens.rotateSession(userId, "s1", "refresh-1", "access-x", "refresh-x"));
+        assertTrue(tokens.isAccessTokenValid(userId, "s1", "access-2"));
+        assertTrue(tokens.rotateSession(userId, "s1", "refresh-2", "access-3", "refresh-3"));
+    }
+
+    @Test
+    void unknownTokenOrSessionIsRejected() {
+        tokens.storeSession(userId, "s1", "access-1", "refresh-1");
+
+        assertFalse(tokens.rotateSession(userId, "s1", "refresh-other", "access-2", "refresh-2"));
+        assertFalse(tokens.rotateSession(userId, "s2", "refresh-1", "access-2", "refresh-2"));
+        assertTrue(tokens.isAccessTokenValid(userId, "s1", "access-1"));
+    }
+
+    @Test
+    void rotateScriptOnlyReplacesTheRecordTheCallerRead() {
+        tokens.storeSession(userId, "s1", "access-1", "refresh-1");
+        String read = (String) redis.opsForHash().get(RedisTokenService.key(userId), "s1");
+        // A concurrent rotation lands between this caller's read and its script call
+        assertTrue(tokens.rotateSession(userId, "s1", "refresh-1", "access-2", "refresh-2"));
+
+        Long rotated = redis.execute(RedisTokenService.ROTATE_SESSION, List.of(RedisTokenService.key(userId)),
+                "s1", read, RedisTokenService.record(Instant.now(), "access-x", ACCESS_TOKEN_EXPIRY, "refresh-x",
+                        REFRESH_TOKEN_EXPIRY), "60000");
+
+        assertEquals(0L, rotated);
+        assertTrue(tokens.isAccessTokenValid(userId, "s1", "access-2"));
+    }
+
+    // ---------------- STORE ----------------
+    @Test
+    void storeDropsExpiredSessionsAndCapsTheRestAtTheLimit() {
+        Instant past = Instant.now().minusSeconds(60);
+        redis.opsForHash().put(RedisTokenService.key(userId), "expired",
+                SessionRecord.encode("a", past, "r", past));
+        tokens.storeSession(userId, "s1", "access-1", "refresh-1");
+        tokens.storeSession(userId, "s2", "access-2", "refresh-2");
+        tokens.storeSession(userId, "s3", "access-3", "refresh-3");
+
+        // s1 and s2 expire in the same second, so either may be the one dropped for s3
+        List<Object> fields = List.copyOf(redis.opsForHash().keys(RedisTokenService.key(userId)));
+        assertEquals(2, fields.size());
+        assertTrue(fields.contains("s3"));
+        assertFalse(fields.contains("expired"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mongoRedis.ratelimit;
+
+import com.example.mongoRedis.support.TestRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HybridRateLimiterTest {
+
+    private final List<HybridRateLimiter> limiters = new ArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        limiters.forEach(HybridRateLimiter::stop);
+    }
+
+    @Test
+    void oneInstanceAdmitsExactlyTheLimitUnderContention() throws Exception {
+        // No background sync within the test, so every push is an inline one racing the callers
+        HybridRateLimiter limiter = limiter(Duration.ofHours(1));
+        RateLimitRule rule = RedisRateLimiterTest.rule(RateLimitAlgorithm.FIXED_WINDOW, 50, Duration.ofMinutes(1));
+
+        assertEquals(50, admitted(List.of(limiter), rule, 320));
+    }
+
+    @Test
+    void instancesOvershootByAtMostTheirLocalBudgets() throws Exception {
+        HybridRateLimiter first = limiter(Duration.ofMillis(20));
+        HybridRateLimiter second = limiter(Duration.ofMillis(20));
+        RateLimitRule rule = RedisRateLimiterTest.rule(RateLimitAlgorithm.FIXED_WINDOW, 100, Duration.ofMinutes(1));
+
+        int admitted = admitted(List.of(first, second), rule, 600);
+
+        // max-error 0.1 gives each instance a local budget of 10, unseen by the other while pending or in flight
+        assertTrue(admitted >= 100 && admitted <= 140, "admitted " + admitted);
+    }
+
+    @Test
+    void admittedPermitsArePushedToRedis() {
+        StringRedisTemplate redis = TestRedis.template();
+        HybridRateLimiter limiter = limiter(Duration.ofHours(1));
+        RateLimitRule rule = RedisRateLimiterTest.rule(RateLimitAlgorithm.FIXED_WINDOW, 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        }
+        limiter.stop();
+
+        Set<String> keys = redis.keys("ratelimit:hybrid:" + rule.getName() + ":*");
+        assertEquals(1, keys.size());
+        assertEquals("3", redis.opsForValue().get(keys.iterator().next()));
+    }
+
+    private int admitted(List<HybridRateLimiter> instances, RateLimitRule rule, int attempts) throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            HybridRateLimiter limiter = instances.get(i % instances.size());
+            calls.add(callers.submit(() -> {
+                if (limiter.tryAcquire("ip:a", rule).isAllowed()) {
+                    admitted.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        return admitted.get();
+    }
+
+    private HybridRateLimiter limiter(Duration syncInterval) {
+        StringRedisTemplate redis = TestRedis.template();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMode(RateLimitProperties.Mode.HYBRID);
+        properties.getHybrid().setSyncInterval(syncInterval);
+        properties.getHybrid().setMaxError(0.1);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HybridRateLimiter limiter = new HybridRateLimiter(redis, new RedisRateLimiter(redis, registry), properties,
+                registry);
+        limiter.start();
+        limiters.add(limiter);
+        return limiter;
+    }
+}
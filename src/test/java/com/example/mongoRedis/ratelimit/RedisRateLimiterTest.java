@@ -0,0 +1,95 @@
+package com.example.mongoRedis.ratelimit;
+
+import com.example.mongoRedis.support.TestRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRateLimiterTest {
+
+    private RedisRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RedisRateLimiter(TestRedis.template(), new SimpleMeterRegistry());
+    }
+
+    // ---------------- FIXED WINDOW ----------------
+    @Test
+    void fixedWindowAdmitsTheLimitThenRejectsUntilTheWindowEnds() {
+        RateLimitRule rule = rule(RateLimitAlgorithm.FIXED_WINDOW, 3, Duration.ofMinutes(1));
+
+        for (long remaining = 2; remaining >= 0; remaining--) {
+            RateLimitDecision decision = limiter.tryAcquire("ip:a", rule);
+            assertTrue(decision.isAllowed());
+            assertEquals(remaining, decision.getRemaining());
+        }
+        RateLimitDecision denied = limiter.tryAcquire("ip:a", rule);
+
+        assertFalse(denied.isAllowed());
+        assertTrue(denied.getRetryAfterMillis() > 0 && denied.getRetryAfterMillis() <= 60_000);
+        assertTrue(limiter.tryAcquire("ip:b", rule).isAllowed(), "keys have separate budgets");
+    }
+
+    @Test
+    void fixedWindowStartsOverInTheNextWindow() throws InterruptedException {
+        RateLimitRule rule = rule(RateLimitAlgorithm.FIXED_WINDOW, 1, Duration.ofMillis(200));
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        assertFalse(limiter.tryAcquire("ip:a", rule).isAllowed());
+        Thread.sleep(250);
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+    }
+
+    // ---------------- TOKEN BUCKET ----------------
+    @Test
+    void tokenBucketAllowsABurstThenRefillsAtTheConfiguredRate() throws InterruptedException {
+        RateLimitRule rule = rule(RateLimitAlgorithm.TOKEN_BUCKET, 2, Duration.ofMillis(1000));
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        RateLimitDecision denied = limiter.tryAcquire("ip:a", rule);
+
+        // One token every 500 ms
+        assertFalse(denied.isAllowed());
+        assertTrue(denied.getRetryAfterMillis() > 0 && denied.getRetryAfterMillis() <= 500);
+        Thread.sleep(denied.getRetryAfterMillis() + 50);
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        assertFalse(limiter.tryAcquire("ip:a", rule).isAllowed());
+    }
+
+    // ---------------- SLIDING LOG ----------------
+    @Test
+    void slidingLogCountsOnlyRequestsInsideTheWindow() throws InterruptedException {
+        RateLimitRule rule = rule(RateLimitAlgorithm.SLIDING_LOG, 2, Duration.ofMillis(300));
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+        RateLimitDecision denied = limiter.tryAcquire("ip:a", rule);
+
+        assertFalse(denied.isAllowed());
+        assertTrue(denied.getRetryAfterMillis() <= 300);
+        Thread.sleep(350);
+
+        assertTrue(limiter.tryAcquire("ip:a", rule).isAllowed());
+    }
+
+    // A fresh rule name per test keeps keys apart on a shared Redis
+    static RateLimitRule rule(RateLimitAlgorithm algorithm, long limit, Duration window) {
+        RateLimitRule rule = new RateLimitRule();
+        rule.setName("test-" + UUID.randomUUID());
+        rule.setAlgorithm(algorithm);
+        rule.setLimit(limit);
+        rule.setWindow(window);
+        return rule;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mongoRedis.support;
+
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Redis for tests that run Lua scripts or pipelines. Starts a container when Docker is available;
+ * otherwise uses the server at REDIS_HOST/REDIS_PORT (default localhost:6379). Tests are skipped,
+ * not failed, when neither is reachable. Each test should use its own key prefix, since the
+ * server is shared by the whole run.
+ */
+public final class TestRedis {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("redis:7-alpine");
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static boolean unavailable;
+
+    private TestRedis() {} // prevent instantiation
+
+    public static synchronized LettuceConnectionFactory connectionFactory() {
+        Assumptions.assumeFalse(unavailable, "No Redis available");
+        if (connectionFactory == null) {
+            connectionFactory = connect();
+        }
+        return connectionFactory;
+    }
+
+    public static StringRedisTemplate template() {
+        return new StringRedisTemplate(connectionFactory());
+    }
+
+    private static LettuceConnectionFactory connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            GenericContainer<?> redis = new GenericContainer<>(IMAGE).withExposedPorts(6379);
+            redis.start();  // stopped by the Testcontainers reaper when the JVM exits
+            host = redis.getHost();
+            port = redis.getMappedPort(6379);
+        }
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        factory.afterPropertiesSet();
+        factory.start();
+        try (var connection = factory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException e) {
+            factory.destroy();
+            unavailable = true;
+            Assumptions.abort("No Docker and no Redis at " + host + ":" + port + ": " + e.getMessage());
+        }
+        return factory;
+    }
+}
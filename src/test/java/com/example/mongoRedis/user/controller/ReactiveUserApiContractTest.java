@@ -0,0 +1,71 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.exception.GlobalExceptionHandler;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.ReactiveUserService;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveUserApiContractTest extends UserApiContractTest {
+
+    private final ReactiveUserService userService = mock(ReactiveUserService.class);
+
+    @Override
+    WebTestClient bind() {
+        when(userService.deleteUser(anyString())).thenReturn(Mono.empty());
+        return WebTestClient.bindToController(new ReactiveUserController(userService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Override
+    void givenCreated(UserResponse user) {
+        when(userService.createUser(any(UserRequest.class))).thenReturn(Mono.just(user));
+    }
+
+    @Override
+    void givenUser(String id, UserResponse user) {
+        when(userService.getUserById(id)).thenReturn(Mono.just(user));
+    }
+
+    @Override
+    void givenMissing(String id) {
+        when(userService.getUserById(id))
+                .thenReturn(Mono.error(new RuntimeException("User not found")));
+    }
+
+    @Override
+    void givenPage(Page<UserResponse> page) {
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(Mono.just(page));
+    }
+
+    @Override
+    void givenCursorPage(String cursor, CursorPage<UserResponse> page) {
+        when(userService.getUsersAfter(cursor, 1, false)).thenReturn(Mono.just(page));
+    }
+
+    @Override
+    void givenBatch(List<String> ids, List<UserResponse> users) {
+        when(userService.getUsersByIds(ids)).thenReturn(Mono.just(users));
+    }
+
+    @Override
+    Pageable lastRequestedPage() {
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(userService).getAllUsers(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.jwt.ReactiveRedisTokenService;
+import com.example.mongoRedis.ratelimit.RateLimitDecision;
+import com.example.mongoRedis.ratelimit.RateLimitRule;
+import com.example.mongoRedis.ratelimit.ReactiveRedisRateLimiter;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class ReactiveUserApiSecurityContractTest extends UserApiSecurityContractTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveRedisRateLimiter rateLimiter;
+
+    @MockitoBean
+    private ReactiveRedisTokenService redisTokenService;
+
+    @MockitoBean
+    private ReactiveUserService userService;
+
+    @Override
+    WebTestClient bind() {
+        return webTestClient;
+    }
+
+    @Override
+    void givenRateLimit(String keyPrefix, RateLimitDecision decision) {
+        when(rateLimiter.tryAcquire(startsWith(keyPrefix), any(RateLimitRule.class))).thenReturn(Mono.just(decision));
+    }
+
+    @Override
+    void givenSessionValid(boolean valid) {
+        when(redisTokenService.isAccessTokenValid(anyString(), anyString(), anyString()))
+                .thenReturn(Mono.just(valid));
+    }
+
+    @Override
+    void givenUser(String id, UserResponse user) {
+        when(userService.getUserById(id)).thenReturn(Mono.just(user));
+    }
+
+    @Override
+    void givenPage(Page<UserResponse> page) {
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(Mono.just(page));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.exception.GlobalExceptionHandler;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.UserExportService;
+import com.example.mongoRedis.user.service.UserImportService;
+import com.example.mongoRedis.user.service.UserService;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServletUserApiContractTest extends UserApiContractTest {
+
+    private final UserService userService = mock(UserService.class);
+
+    @Override
+    WebTestClient bind() {
+        UserController controller = new UserController(userService, mock(UserImportService.class),
+                mock(UserExportService.class));
+        return MockMvcWebTestClient.bindToController(controller)
+                .controllerAdvice(new GlobalExceptionHandler())
+                .customArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Override
+    void givenCreated(UserResponse user) {
+        when(userService.createUser(any(UserRequest.class))).thenReturn(user);
+    }
+
+    @Override
+    void givenUser(String id, UserResponse user) {
+        when(userService.getUserById(id)).thenReturn(user);
+    }
+
+    @Override
+    void givenMissing(String id) {
+        when(userService.getUserById(id)).thenThrow(new RuntimeException("User not found"));
+    }
+
+    @Override
+    void givenPage(Page<UserResponse> page) {
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(page);
+    }
+
+    @Override
+    void givenCursorPage(String cursor, CursorPage<UserResponse> page) {
+        when(userService.getUsersAfter(cursor, 1, false)).thenReturn(page);
+    }
+
+    @Override
+    void givenBatch(List<String> ids, List<UserResponse> users) {
+        when(userService.getUsersByIds(ids)).thenReturn(users);
+    }
+
+    @Override
+    Pageable lastRequestedPage() {
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(userService).getAllUsers(captor.capture());
+        return captor.getValue();
+    }
+}
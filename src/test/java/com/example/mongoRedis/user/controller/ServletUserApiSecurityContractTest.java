@@ -0,0 +1,64 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.jwt.RedisTokenService;
+import com.example.mongoRedis.ratelimit.RateLimitDecision;
+import com.example.mongoRedis.ratelimit.RateLimitRule;
+import com.example.mongoRedis.ratelimit.RateLimiter;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import com.example.mongoRedis.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServletUserApiSecurityContractTest extends UserApiSecurityContractTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RateLimiter rateLimiter;
+
+    @MockitoBean
+    private RedisTokenService redisTokenService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Override
+    WebTestClient bind() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Override
+    void givenRateLimit(String keyPrefix, RateLimitDecision decision) {
+        when(rateLimiter.tryAcquire(startsWith(keyPrefix), any(RateLimitRule.class))).thenReturn(decision);
+    }
+
+    @Override
+    void givenSessionValid(boolean valid) {
+        when(redisTokenService.isAccessTokenValid(anyString(), anyString(), anyString())).thenReturn(valid);
+    }
+
+    @Override
+    void givenUser(String id, UserResponse user) {
+        when(userService.getUserById(id)).thenReturn(user);
+    }
+
+    @Override
+    void givenPage(Page<UserResponse> page) {
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(page);
+    }
+}
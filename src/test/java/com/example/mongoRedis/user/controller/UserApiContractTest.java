@@ -0,0 +1,151 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.common.response.CursorPage;
+import com.example.mongoRedis.user.dto.request.UserBatchRequest;
+import com.example.mongoRedis.user.dto.request.UserRequest;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Shared HTTP contract for the servlet and reactive user endpoints. Each subclass binds its
+ * stack's controller to a WebTestClient and stubs the service layer; the assertions stay identical.
+ */
+abstract class UserApiContractTest {
+
+    static final UserResponse USER = UserResponse.builder()
+            .id("u1").name("Alice").email("alice@example.com").age(30).userType(UserType.STUDENT).build();
+
+    WebTestClient client;
+
+    abstract WebTestClient bind();
+
+    abstract void givenCreated(UserResponse user);
+
+    abstract void givenUser(String id, UserResponse user);
+
+    abstract void givenMissing(String id);
+
+    abstract void givenPage(Page<UserResponse> page);
+
+    abstract Pageable lastRequestedPage();
+
+    abstract void givenCursorPage(String cursor, CursorPage<UserResponse> page);
+
+    abstract void givenBatch(List<String> ids, List<UserResponse> users);
+
+    @BeforeEach
+    void setUp() {
+        client = bind();
+    }
+
+    @Test
+    void createUserReturnsWrappedResponse() {
+        givenCreated(USER);
+
+        client.post().uri("/users/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UserRequest.builder()
+                        .name("Alice").email("alice@example.com").age(30).userType(UserType.STUDENT).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.message").isEqualTo("User created successfully")
+                .jsonPath("$.data.id").isEqualTo("u1")
+                .jsonPath("$.data.email").isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void getUserByIdReturnsUser() {
+        givenUser("u1", USER);
+
+        client.get().uri("/u1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data.name").isEqualTo("Alice");
+    }
+
+    @Test
+    void missingUserGoesThroughGlobalExceptionHandler() {
+        givenMissing("nope");
+
+        client.get().uri("/nope")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.data").doesNotExist()
+                .jsonPath("$.message").isEqualTo("Something went wrong: User not found");
+    }
+
+    @Test
+    void getAllUsersHonoursPageParameters() {
+        givenPage(new PageImpl<>(List.of(USER), PageRequest.of(2, 5), 11));
+
+        client.get().uri("/users/all-users?page=2&size=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.content[0].id").isEqualTo("u1")
+                .jsonPath("$.data.totalElements").isEqualTo(11);
+
+        Pageable requested = lastRequestedPage();
+        assertEquals(2, requested.getPageNumber());
+        assertEquals(5, requested.getPageSize());
+    }
+
+    @Test
+    void cursorPageOmitsTotalUnlessRequested() {
+        givenCursorPage("abc", CursorPage.<UserResponse>builder()
+                .content(List.of(USER)).size(1).nextCursor("next").build());
+
+        client.get().uri("/users/all-users/cursor?cursor=abc&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.content[0].id").isEqualTo("u1")
+                .jsonPath("$.data.nextCursor").isEqualTo("next")
+                .jsonPath("$.data.totalElements").doesNotExist();
+    }
+
+    @Test
+    void batchLookupReturnsUsersInServiceOrder() {
+        UserResponse other = UserResponse.builder().id("u2").name("Bob").build();
+        givenBatch(List.of("u2", "u1"), List.of(other, USER));
+
+        client.post().uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserBatchRequest(List.of("u2", "u1")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].id").isEqualTo("u2")
+                .jsonPath("$.data[1].id").isEqualTo("u1");
+    }
+
+    @Test
+    void deleteUserReturnsEmptyData() {
+        client.delete().uri("/u1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data").doesNotExist()
+                .jsonPath("$.message").isEqualTo("User deleted successfully");
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.mongoRedis.user.controller;
+
+import com.example.mongoRedis.common.UserType;
+import com.example.mongoRedis.jwt.JwtService;
+import com.example.mongoRedis.ratelimit.RateLimitDecision;
+import com.example.mongoRedis.user.dto.model.User;
+import com.example.mongoRedis.user.dto.response.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+/**
+ * Authentication, authorization and rate limiting of the user endpoints, run through each
+ * stack's real security filter chain. Only the session store, the limiter and the service layer
+ * are stubbed; tokens are signed by the real JwtService.
+ */
+abstract class UserApiSecurityContractTest {
+
+    static final UserResponse USER = UserApiContractTest.USER;
+
+    static final RateLimitDecision ALLOWED = RateLimitDecision.allow(10);
+    static final RateLimitDecision DENIED = new RateLimitDecision(false, 0, 30_000);
+
+    @Autowired
+    JwtService jwtService;
+
+    WebTestClient client;
+
+    abstract WebTestClient bind();
+
+    // Decision for every key starting with the prefix: "ip:" before authentication, "user:" after it
+    abstract void givenRateLimit(String keyPrefix, RateLimitDecision decision);
+
+    abstract void givenSessionValid(boolean valid);
+
+    abstract void givenUser(String id, UserResponse user);
+
+    abstract void givenPage(Page<UserResponse> page);
+
+    @BeforeEach
+    void setUp() {
+        client = bind();
+        givenRateLimit("ip:", ALLOWED);
+        givenRateLimit("user:", ALLOWED);
+        givenSessionValid(true);
+    }
+
+    @Test
+    void missingTokenIsRejected() {
+        client.get().uri("/u1")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Missing or invalid Authorization header");
+    }
+
+    @Test
+    void invalidTokenIsRejected() {
+        client.get().uri("/u1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Token is invalid or has expired");
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        givenSessionValid(false);
+
+        client.get().uri("/u1")
+                .header(HttpHeaders.AUTHORIZATION, bearer(UserType.ADMIN))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Token is not valid or has been revoked");
+    }
+
+    @Test
+    void validTokenReachesController() {
+        givenUser("u1", USER);
+
+        client.get().uri("/u1")
+                .header(HttpHeaders.AUTHORIZATION, bearer(UserType.STUDENT))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("X-RateLimit-Remaining")
+                .expectBody()
+                .jsonPath("$.data.id").isEqualTo("u1");
+    }
+
+    @Test
+    void adminOnlyRouteRejectsOtherRoles() {
+        givenPage(new PageImpl<>(List.of(USER), PageRequest.of(0, 20), 1));
+
+        client.get().uri("/users/all-users")
+                .header(HttpHeaders.AUTHORIZATION, bearer(UserType.STUDENT))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client.get().uri("/users/all-users")
+                .header(HttpHeaders.AUTHORIZATION, bearer(UserType.ADMIN))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void addressLimitAppliesBeforeAuthentication() {
+        givenRateLimit("ip:", DENIED);
+
+        // 429 rather than 401: an unauthenticated flood is throttled before any token work
+        client.get().uri("/u1")
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "30")
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Too many requests. Please try again later.");
+    }
+
+    @Test
+    void principalLimitAppliesAfterAuthentication() {
+        givenRateLimit("user:", DENIED);
+        givenUser("u1", USER);
+
+        client.get().uri("/u1")
+                .header(HttpHeaders.AUTHORIZATION, bearer(UserType.STUDENT))
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "30");
+    }
+
+    String bearer(UserType role) {
+        User user = User.builder().id("u-" + role.name().toLowerCase()).userType(role).build();
+        return "Bearer " + jwtService.generateToken(user, jwtService.newSessionId());
+    }
+}
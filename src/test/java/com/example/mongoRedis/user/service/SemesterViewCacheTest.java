@@ -0,0 +1,96 @@
+package com.example.mongoRedis.user.service;
+
+import com.example.mongoRedis.cache.CacheNames;
+import com.example.mongoRedis.cache.TieredCacheManager;
+import com.example.mongoRedis.support.TestRedis;
+import com.example.mongoRedis.user.dto.model.StudentCourse;
+import com.example.mongoRedis.user.dto.response.StudentSemesterView;
+import com.example.mongoRedis.user.repository.StudentCourseRepository;
+import com.example.mongoRedis.user.repository.TeacherClassRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SemesterViewCacheTest {
+
+    private final StudentCourseRepository courses = mock(StudentCourseRepository.class);
+    private final TieredCacheManager cacheManager = TieredCacheManager.builder()
+            .defaultTtl(Duration.ofMinutes(30))
+            .l1MaxSize(100)
+            .l1Ttl(Duration.ofMinutes(5))
+            .l2RetryInterval(Duration.ofSeconds(5))
+            .build();
+    private final SemesterViewCache views = new SemesterViewCache(courses, mock(TeacherClassRepository.class),
+            cacheManager, new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class));
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    void saveEvictsTheCachedView() {
+        StudentCourse math = course("c1", "math");
+        when(courses.findByStudentIdAndSemester("s1", "2026-1")).thenReturn(List.of(math))
+                .thenReturn(List.of(math, course("c2", "art")));
+
+        assertEquals(1, views.getStudentCourses("s1", "2026-1").size());
+        assertEquals(1, views.getStudentCourses("s1", "2026-1").size());
+        views.studentCourseSaved(course("c2", "art"));
+
+        assertEquals(2, views.getStudentCourses("s1", "2026-1").size());
+        verify(courses, times(2)).findByStudentIdAndSemester("s1", "2026-1");
+    }
+
+    @Test
+    void loadOverlappingASaveIsNotKept() {
+        StudentCourse math = course("c1", "math");
+        // The save commits and evicts while the first query is still reading the old state
+        when(courses.findByStudentIdAndSemester("s1", "2026-1")).thenAnswer(invocation -> {
+            views.studentCourseSaved(course("c2", "art"));
+            return List.of(math);
+        }).thenReturn(List.of(math, course("c2", "art")));
+
+        assertEquals(1, views.getStudentCourses("s1", "2026-1").size());
+
+        assertEquals(2, views.getStudentCourses("s1", "2026-1").size());
+        assertEquals(2, cacheManager.getCache(CacheNames.STUDENT_COURSES)
+                .get("s1:2026-1", StudentSemesterView.class).getCourses().size());
+    }
+
+    @Test
+    void writeStampIsCreatedWithItsExpiry() {
+        StringRedisTemplate redis = TestRedis.template();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("redisTemplate", redis);
+        SemesterViewCache shared = new SemesterViewCache(courses, mock(TeacherClassRepository.class), cacheManager,
+                beans.getBeanProvider(StringRedisTemplate.class));
+        String studentId = "test-" + UUID.randomUUID();
+        String stampKey = "cache:view-stamp:" + CacheNames.STUDENT_COURSES + ":" + studentId + ":2026-1";
+
+        shared.studentCourseSaved(StudentCourse.builder().id("c1").studentId(studentId).semester("2026-1").build());
+        shared.studentCourseSaved(StudentCourse.builder().id("c1").studentId(studentId).semester("2026-1").build());
+
+        assertEquals("2", redis.opsForValue().get(stampKey));
+        Long ttl = redis.getExpire(stampKey, TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 600, "ttl " + ttl);
+        redis.delete(stampKey);
+    }
+
+    private static StudentCourse course(String id, String name) {
+        return StudentCourse.builder().id(id).studentId("s1").semester("2026-1").courseName(name).build();
+    }
+}